@@ -0,0 +1,23 @@
+package ma.enset.hopital.bench;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks selected on the command line (all by default, same syntax as the
+ * JMH launcher) and writes the results as JSON to target/jmh-result.json, unless -rf/-rff
+ * say otherwise, so runs can be compared between releases.
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions cli = new CommandLineOptions(args);
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(cli);
+        if (!cli.getResultFormat().hasValue()) options.resultFormat(ResultFormatType.JSON);
+        if (!cli.getResult().hasValue()) options.result("target/jmh-result.json");
+        new Runner(options.build()).run();
+    }
+}
@@ -0,0 +1,114 @@
+package ma.enset.hopital.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 1,000 logged-in users browsing /index at once over real HTTP, with Tomcat on its
+ * platform thread pool or on virtual threads. Each JMH thread is one user with its own
+ * session; SampleTime reports the latency percentiles seen by the users.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Threads(ConcurrentUsersBenchmark.USERS)
+@Fork(1)
+public class ConcurrentUsersBenchmark {
+
+    static final int USERS = 1000;
+
+    private static final String[] KEYWORDS = {"", "", "ness", "mar", "lee"};
+
+    @Param({"false", "true"})
+    public boolean virtualThreads;
+
+    @Param({"100000"})
+    public int patients;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private String baseUrl;
+
+    @Setup(Level.Trial)
+    public void boot() {
+        // the fragment cache would answer most pages after the first iteration;
+        // requests queue on the pool instead of failing after the default 5 s;
+        // all the users log in at once, none of them may be shed by the BCrypt queue
+        context = Hopital.boot(
+                "--spring.threads.virtual.enabled=" + virtualThreads,
+                "--hopital.patients.fragment-cache.enabled=false",
+                "--spring.datasource.hikari.connection-timeout=60000",
+                "--hopital.security.bcrypt.strength=4",
+                "--hopital.security.bcrypt.queue-capacity=" + USERS);
+        Hopital.seed(context, patients);
+        baseUrl = "http://localhost:" + ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+        client = HttpClient.newBuilder()
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .version(HttpClient.Version.HTTP_1_1)
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void close() {
+        client.close();
+        context.close();
+    }
+
+    @State(Scope.Thread)
+    public static class User {
+
+        private String session;
+
+        @Setup(Level.Trial)
+        public void logIn(ConcurrentUsersBenchmark bench) throws IOException, InterruptedException {
+            HttpResponse<Void> response = bench.client.send(HttpRequest.newBuilder(URI.create(bench.baseUrl + "/login"))
+                    .header("Content-Type", "application/x-www-form-urlencoded")
+                    .POST(HttpRequest.BodyPublishers.ofString("username=user1&password=1234"))
+                    .build(), HttpResponse.BodyHandlers.discarding());
+            // a failed login also gets a session (holding the error), only the redirect tells them apart
+            String location = response.headers().firstValue("Location").orElse("");
+            if (response.statusCode() != 302 || location.contains("/login"))
+                throw new IllegalStateException("login failed: " + response.statusCode() + " " + location);
+            session = response.headers().allValues("Set-Cookie").stream()
+                    .filter(cookie -> cookie.startsWith("JSESSIONID="))
+                    .map(cookie -> cookie.substring(0, cookie.indexOf(';')))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalStateException("login returned no session"));
+        }
+    }
+
+    @Benchmark
+    public int browse(User user) throws IOException, InterruptedException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String url = baseUrl + "/index?page=" + random.nextInt(50) + "&keyword=" + KEYWORDS[random.nextInt(KEYWORDS.length)];
+        HttpResponse<byte[]> response = client.send(HttpRequest.newBuilder(URI.create(url))
+                .header("Cookie", user.session)
+                .build(), HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) throw new IllegalStateException(url + " returned " + response.statusCode());
+        return response.body().length;
+    }
+}
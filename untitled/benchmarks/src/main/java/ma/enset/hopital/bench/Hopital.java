@@ -0,0 +1,79 @@
+package ma.enset.hopital.bench;
+
+import ma.enset.hopital.HopitalApplication;
+import ma.enset.hopital.entities.Patient;
+import ma.enset.hopital.generator.PatientGenerator;
+import ma.enset.hopital.imports.PatientBatchWriter;
+import ma.enset.hopital.search.PatientNameIndex;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Boots the application against a private in-memory H2 database and seeds it
+ * with the synthetic patients of {@link PatientGenerator}.
+ */
+final class Hopital {
+
+    private static final PatientGenerator GENERATOR = new PatientGenerator(42, 0.3);
+
+    private static int databases;
+
+    private Hopital() {
+    }
+
+    // the schema comes from the Flyway migrations, as in production; extraArgs override these defaults
+    static ConfigurableApplicationContext boot(String... extraArgs) {
+        Map<String, String> args = new LinkedHashMap<>();
+        args.put("spring.datasource.url", "jdbc:h2:mem:bench" + (++databases) + ";MODE=MariaDB;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        args.put("spring.datasource.username", "sa");
+        args.put("spring.datasource.password", "");
+        args.put("spring.jpa.properties.hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        args.put("hopital.flyway.vendor", "h2");
+        args.put("server.port", "0");
+        args.put("spring.main.banner-mode", "off");
+        args.put("logging.level.root", "WARN");
+        for (String arg : extraArgs) {
+            int eq = arg.indexOf('=');
+            args.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+        return new SpringApplicationBuilder(HopitalApplication.class)
+                .run(args.entrySet().stream().map(e -> "--" + e.getKey() + "=" + e.getValue()).toArray(String[]::new));
+    }
+
+    static void seed(ConfigurableApplicationContext context, int patients) {
+        PatientBatchWriter writer = context.getBean(PatientBatchWriter.class);
+        List<Patient> chunk = new ArrayList<>(10_000);
+        for (int i = 0; i < patients; i++) {
+            chunk.add(patient(i));
+            if (chunk.size() == 10_000) {
+                writer.insert(chunk, (index, e) -> {
+                    throw e;
+                });
+                chunk = new ArrayList<>(10_000);
+            }
+        }
+        writer.insert(chunk, (index, e) -> {
+            throw e;
+        });
+        // rebuild the name index from the seeded table and wait for it, searches fall back to SQL until then
+        PatientNameIndex nameIndex = context.getBean(PatientNameIndex.class);
+        nameIndex.reload();
+        while (!nameIndex.isReady()) {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    static Patient patient(int i) {
+        return GENERATOR.generate(i);
+    }
+}
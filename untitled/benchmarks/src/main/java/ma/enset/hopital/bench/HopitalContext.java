@@ -0,0 +1,40 @@
+package ma.enset.hopital.bench;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Application context shared by the benchmarks of a trial, seeded with {@link #patients} rows.
+ */
+@State(Scope.Benchmark)
+public class HopitalContext {
+
+    @Param({"10000", "1000000"})
+    public int patients;
+
+    private ConfigurableApplicationContext context;
+
+    @Setup(Level.Trial)
+    public void boot() {
+        context = Hopital.boot();
+        Hopital.seed(context, patients);
+    }
+
+    public <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    public ConfigurableApplicationContext context() {
+        return context;
+    }
+
+    @TearDown(Level.Trial)
+    public void close() {
+        context.close();
+    }
+}
@@ -0,0 +1,72 @@
+package ma.enset.hopital.bench;
+
+import ma.enset.hopital.entities.Patient;
+import ma.enset.hopital.imports.PatientBatchWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Insert throughput (rows per second) with IDENTITY ids, which disable Hibernate's
+ * JDBC batching, against the pooled-lo sequence ids.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class IdStrategyBenchmark {
+
+    private static final int ROWS = 1_000;
+
+    @Param({"pooled", "identity"})
+    public String idStrategy;
+
+    private ConfigurableApplicationContext context;
+    private PatientBatchWriter writer;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = "identity".equals(idStrategy)
+                ? Hopital.boot("--hopital.patients.name-index.enabled=false",
+                "--spring.jpa.mapping-resources=META-INF/orm-identity.xml",
+                // the migrations create sequence-backed tables, the IDENTITY variant lets Hibernate build its own
+                "--spring.flyway.enabled=false",
+                "--spring.jpa.hibernate.ddl-auto=create")
+                : Hopital.boot("--hopital.patients.name-index.enabled=false");
+        writer = context.getBean(PatientBatchWriter.class);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public int insert() {
+        List<Patient> patients = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) patients.add(Hopital.patient(next++));
+        return writer.insert(patients, (index, e) -> {
+            throw e;
+        });
+    }
+
+    @TearDown(Level.Trial)
+    public void close() {
+        context.close();
+    }
+}
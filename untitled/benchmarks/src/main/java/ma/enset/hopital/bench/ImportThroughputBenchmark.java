@@ -0,0 +1,65 @@
+package ma.enset.hopital.bench;
+
+import ma.enset.hopital.imports.ImportReport;
+import ma.enset.hopital.imports.PatientImportService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.StringReader;
+import java.text.SimpleDateFormat;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bulk CSV import throughput; the score is in rows per second.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ImportThroughputBenchmark {
+
+    private static final int ROWS = 10_000;
+
+    private ConfigurableApplicationContext context;
+    private PatientImportService importService;
+    private String csv;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = Hopital.boot("--hopital.patients.name-index.enabled=false");
+        importService = context.getBean(PatientImportService.class);
+        SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd");
+        StringBuilder sb = new StringBuilder("nom,dateNaissance,malade,score\n");
+        for (int i = 0; i < ROWS; i++) {
+            var p = Hopital.patient(i);
+            sb.append(p.getNom()).append(',').append(dateFormat.format(p.getDateNaissance())).append(',')
+                    .append(p.isMalade()).append(',').append(p.getScore()).append('\n');
+        }
+        csv = sb.toString();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public ImportReport importCsv() throws Exception {
+        return importService.importCsv(new StringReader(csv));
+    }
+
+    @TearDown(Level.Trial)
+    public void close() {
+        context.close();
+    }
+}
@@ -0,0 +1,79 @@
+package ma.enset.hopital.bench;
+
+import jakarta.persistence.EntityManager;
+import ma.enset.hopital.dto.PatientView;
+import ma.enset.hopital.entities.Patient;
+import ma.enset.hopital.repository.PatientRepository;
+import ma.enset.hopital.service.PatientQueryService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one listing page loaded as managed entities in a read-write transaction, as read-only entities
+ * in a read-only transaction, and as {@link PatientView} projections through {@link PatientQueryService}.
+ * Run with {@code -prof gc} to compare {@code gc.alloc.rate.norm} (bytes allocated per page).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-XX:+UseParallelGC")
+public class ListingAllocationBenchmark {
+
+    @Param({"20", "500"})
+    public int size;
+
+    private EntityManager entityManager;
+    private PatientRepository repository;
+    private PatientQueryService queryService;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    @Setup(Level.Trial)
+    public void setUp(HopitalContext hopital) {
+        entityManager = hopital.bean(EntityManager.class);
+        repository = hopital.bean(PatientRepository.class);
+        queryService = hopital.bean(PatientQueryService.class);
+        PlatformTransactionManager transactionManager = hopital.bean(PlatformTransactionManager.class);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    // what /index did before: managed entities, snapshots taken on load and dirty-checked at commit
+    @Benchmark
+    public List<Patient> managedEntities() {
+        return readWrite.execute(status -> entityManager
+                .createQuery("select p from Patient p where p.nom like :x", Patient.class)
+                .setParameter("x", "%%")
+                .setMaxResults(size)
+                .getResultList());
+    }
+
+    @Benchmark
+    public List<Patient> readOnlyEntities() {
+        return readOnly.execute(status -> repository.findSliceByNomContains("", PageRequest.of(0, size)).getContent());
+    }
+
+    @Benchmark
+    public List<PatientView> projections() {
+        return queryService.searchSlice("", 0, size).getContent();
+    }
+}
@@ -0,0 +1,66 @@
+package ma.enset.hopital.bench;
+
+import ma.enset.hopital.entities.Patient;
+import ma.enset.hopital.repository.PatientRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Offset (LIMIT/OFFSET) against keyset (id > cursor) pagination as the page gets deeper:
+ * the offset query slows down linearly, the keyset query stays flat. Both sides read
+ * the same rows in id order and fetch one extra row to detect a next page, without a COUNT.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PaginationDepthBenchmark {
+
+    private static final int SIZE = 20;
+    private static final Sort BY_ID = Sort.by("id");
+
+    @Param({"0", "100", "2000", "40000"})
+    public int page;
+
+    private PatientRepository repository;
+    private int effectivePage;
+    private long cursor;
+
+    @Setup(Level.Trial)
+    public void setUp(HopitalContext hopital) {
+        repository = hopital.bean(PatientRepository.class);
+        // pages beyond the seeded data are clamped to the last full page
+        effectivePage = (int) Math.max(0, Math.min(page, repository.count() / SIZE - 1));
+        List<Patient> previous = effectivePage == 0 ? List.of()
+                : repository.findSliceByNomContains("", PageRequest.of(effectivePage - 1, SIZE, BY_ID)).getContent();
+        cursor = previous.isEmpty() ? 0 : previous.get(previous.size() - 1).getId();
+    }
+
+    @Benchmark
+    public Slice<Patient> offset() {
+        return repository.findSliceByNomContains("", PageRequest.of(effectivePage, SIZE, BY_ID));
+    }
+
+    @Benchmark
+    public List<Patient> keyset() {
+        return repository.findByNomContainsAfter("", cursor, PageRequest.ofSize(SIZE + 1));
+    }
+}
@@ -0,0 +1,89 @@
+package ma.enset.hopital.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Full /index round trip through the security filter chain, the controller and the
+ * Thymeleaf rendering of patients.html, without the network. The same few URLs are requested
+ * over and over, so with the fragment cache on every call after the first one is a hit; the
+ * cache is off by default to measure the query and the rendering of the table.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PatientIndexBenchmark {
+
+    @Param({"10000", "1000000"})
+    public int patients;
+
+    @Param({"false", "true"})
+    public boolean fragmentCache;
+
+    private ConfigurableApplicationContext context;
+    private MockMvc mockMvc;
+    private RequestPostProcessor admin;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = Hopital.boot("--hopital.patients.fragment-cache.enabled=" + fragmentCache);
+        Hopital.seed(context, patients);
+        mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) context)
+                .apply(springSecurity())
+                .build();
+        admin = user("admin").authorities(new SimpleGrantedAuthority("ADMIN"));
+    }
+
+    @TearDown(Level.Trial)
+    public void close() {
+        context.close();
+    }
+
+    @Benchmark
+    public byte[] firstPage() throws Exception {
+        return index("0", "");
+    }
+
+    @Benchmark
+    public byte[] keywordSearch() throws Exception {
+        return index("0", "ness");
+    }
+
+    @Benchmark
+    public byte[] deepPage() throws Exception {
+        return index("200", "");
+    }
+
+    private byte[] index(String page, String keyword) throws Exception {
+        return mockMvc.perform(get("/index").param("page", page).param("keyword", keyword).with(admin))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+    }
+}
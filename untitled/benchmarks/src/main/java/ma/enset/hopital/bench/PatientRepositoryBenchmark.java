@@ -0,0 +1,61 @@
+package ma.enset.hopital.bench;
+
+import ma.enset.hopital.entities.Patient;
+import ma.enset.hopital.repository.PatientRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PatientRepositoryBenchmark {
+
+    private PatientRepository repository;
+    private long maxId;
+
+    @Setup(Level.Trial)
+    public void setUp(HopitalContext hopital) {
+        repository = hopital.bean(PatientRepository.class);
+        maxId = repository.findAll(PageRequest.of(0, 1, Sort.by("id").descending()))
+                .getContent().get(0).getId();
+    }
+
+    @Benchmark
+    public Page<Patient> findByNomContains() {
+        return repository.findByNomContains("ness", PageRequest.of(0, 20));
+    }
+
+    @Benchmark
+    public Page<Patient> chercher() {
+        return repository.chercher("%ness%", PageRequest.of(0, 20));
+    }
+
+    @Benchmark
+    public Optional<Patient> findById() {
+        return repository.findById(1 + ThreadLocalRandom.current().nextLong(maxId));
+    }
+
+    @Benchmark
+    public Patient save() {
+        return repository.save(Hopital.patient(ThreadLocalRandom.current().nextInt(1_000_000)));
+    }
+}
@@ -0,0 +1,99 @@
+package ma.enset.hopital.bench;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ma.enset.hopital.entities.Patient;
+import ma.enset.hopital.web.api.PatientSlice;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization of one /api/patients page with the mappers of the running application:
+ * JSON (Boot's ObjectMapper, ISO dates), CBOR and Smile (epoch dates).
+ * The payload size of a page is the bytes counter divided by the ops/s score.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"100", "10000"})
+    public int pageSize;
+
+    @Param({"json", "cbor", "smile"})
+    public String format;
+
+    private ConfigurableApplicationContext context;
+    private ObjectMapper mapper;
+    private PatientSlice page;
+
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Payload {
+        public long bytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            bytes = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = Hopital.boot("--hopital.patients.name-index.enabled=false");
+        mapper = switch (format) {
+            case "cbor" -> context.getBean(MappingJackson2CborHttpMessageConverter.class).getObjectMapper();
+            case "smile" -> context.getBean(MappingJackson2SmileHttpMessageConverter.class).getObjectMapper();
+            default -> context.getBean(ObjectMapper.class);
+        };
+        // same shape as the API: one map per row, all fields
+        List<Map<String, Object>> rows = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            Patient patient = Hopital.patient(i);
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("id", (long) i + 1);
+            row.put("nom", patient.getNom());
+            row.put("dateNaissance", patient.getDateNaissance());
+            row.put("malade", patient.isMalade());
+            row.put("score", patient.getScore());
+            rows.add(row);
+        }
+        page = new PatientSlice(rows, "MTAwMDA");
+    }
+
+    @Benchmark
+    public byte[] serialize(Payload payload) throws JsonProcessingException {
+        byte[] bytes = mapper.writeValueAsBytes(page);
+        payload.bytes += bytes.length;
+        return bytes;
+    }
+
+    @TearDown(Level.Trial)
+    public void close() {
+        context.close();
+    }
+}
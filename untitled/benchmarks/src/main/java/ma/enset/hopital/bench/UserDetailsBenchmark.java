@@ -0,0 +1,47 @@
+package ma.enset.hopital.bench;
+
+import ma.enset.hopital.security.UserDetailsCache;
+import ma.enset.hopital.security.UserDetailsServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserDetailsBenchmark {
+
+    private UserDetailsServiceImpl userDetailsService;
+    private UserDetailsCache userCache;
+
+    @Setup(Level.Trial)
+    public void setUp(HopitalContext hopital) {
+        userDetailsService = hopital.bean(UserDetailsServiceImpl.class);
+        userCache = hopital.bean(UserDetailsCache.class);
+    }
+
+    @Benchmark
+    public UserDetails cached() {
+        return userDetailsService.loadUserByUsername("admin");
+    }
+
+    @Benchmark
+    public UserDetails uncached() {
+        userCache.removeUserFromCache("admin");
+        return userDetailsService.loadUserByUsername("admin");
+    }
+}
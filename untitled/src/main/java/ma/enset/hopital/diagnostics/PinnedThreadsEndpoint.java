@@ -0,0 +1,30 @@
+package ma.enset.hopital.diagnostics;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * /actuator/pinnedthreads: the pinning count and the most recent pinned virtual threads
+ * with their stack, as recorded by {@link VirtualThreadPinningMonitor}.
+ */
+@Component
+@Endpoint(id = "pinnedthreads")
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class PinnedThreadsEndpoint {
+
+    public record PinnedThreads(long count, List<VirtualThreadPinningMonitor.PinnedEvent> recent) {
+    }
+
+    private final VirtualThreadPinningMonitor monitor;
+
+    @ReadOperation
+    public PinnedThreads pinnedThreads() {
+        return new PinnedThreads(monitor.getPinnedCount(), monitor.getRecent());
+    }
+}
@@ -0,0 +1,115 @@
+package ma.enset.hopital.diagnostics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Reports virtual threads pinned to their carrier, i.e. blocked inside a synchronized
+ * block or a native frame, using the JFR {@code jdk.VirtualThreadPinned} event.
+ * <p>
+ * Blocking paths audited for the virtual-thread mode: PatientRepository and the
+ * account repositories block on JDBC sockets through the Hikari pool and the MySQL driver.
+ * <ul>
+ *     <li>mysql-connector-j 8.x (the version managed by Spring Boot 3.2) runs every statement
+ *     inside {@code synchronized (connection mutex)}, so each round trip pins its carrier.
+ *     9.0 replaced those monitors with ReentrantLock; the pom pins 9.x for that reason.</li>
+ *     <li>HikariCP 5.0.x (Boot managed) takes a monitor when the pool adds or closes connections;
+ *     5.1 uses locks. Pinned as well in the pom.</li>
+ *     <li>Java 21 still pins in {@code Object.wait} and native frames (JEP 491 lifts the monitor
+ *     case in Java 24 only): class loading and JNI stay a source of short pins.</li>
+ * </ul>
+ * The benchmarks run on H2, whose embedded engine has no socket, so they do not exercise
+ * the driver path: check this monitor against the real database before switching the mode on.
+ * The BCrypt pool keeps platform threads on purpose (CPU-bound work).
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadPinningMonitor implements InitializingBean, DisposableBean, MeterBinder {
+
+    public record PinnedEvent(String thread, Duration duration, String stack) {
+    }
+
+    private static final int MAX_RECENT = 20;
+
+    private final Duration threshold;
+    private final AtomicLong pinnedCount = new AtomicLong();
+    private final Deque<PinnedEvent> recent = new ArrayDeque<>();
+    private RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(@Value("${hopital.diagnostics.pinned-threshold:20ms}") Duration threshold) {
+        this.threshold = threshold;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        stream = new RecordingStream();
+        stream.enable("jdk.VirtualThreadPinned").withThreshold(threshold).withStackTrace();
+        stream.onEvent("jdk.VirtualThreadPinned", this::onPinned);
+        stream.startAsync();
+    }
+
+    private void onPinned(RecordedEvent event) {
+        pinnedCount.incrementAndGet();
+        String thread = event.getThread() == null ? "?" : event.getThread().getJavaName();
+        PinnedEvent pinned = new PinnedEvent(thread, event.getDuration(), format(event.getStackTrace()));
+        synchronized (recent) {
+            if (recent.size() == MAX_RECENT) recent.removeFirst();
+            recent.addLast(pinned);
+        }
+        log.warn("Virtual thread {} pinned for {} ms\n{}", thread, pinned.duration().toMillis(), pinned.stack());
+    }
+
+    private static String format(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) return "";
+        return stackTrace.getFrames().stream()
+                .limit(15)
+                .map(VirtualThreadPinningMonitor::format)
+                .collect(Collectors.joining("\n"));
+    }
+
+    private static String format(RecordedFrame frame) {
+        return "\tat " + frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                + "(line " + frame.getLineNumber() + ")";
+    }
+
+    public long getPinnedCount() {
+        return pinnedCount.get();
+    }
+
+    public List<PinnedEvent> getRecent() {
+        synchronized (recent) {
+            return List.copyOf(recent);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("hopital.virtual.threads.pinned", pinnedCount, AtomicLong::get)
+                .description("Virtual threads pinned longer than the threshold")
+                .register(registry);
+    }
+
+    @Override
+    public void destroy() {
+        if (stream != null) stream.close();
+    }
+}
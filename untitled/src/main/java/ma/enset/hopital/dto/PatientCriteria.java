@@ -0,0 +1,29 @@
+package ma.enset.hopital.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+/**
+ * Optional filters of the patient search, bound from the /index request parameters.
+ * Bounds are inclusive; a null field does not filter.
+ */
+@Data
+@NoArgsConstructor
+public class PatientCriteria {
+    private String nom;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate bornFrom;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate bornTo;
+    private Boolean malade;
+    private Integer scoreMin;
+    private Integer scoreMax;
+
+    public boolean isEmpty() {
+        return (nom == null || nom.isBlank()) && bornFrom == null && bornTo == null
+                && malade == null && scoreMin == null && scoreMax == null;
+    }
+}
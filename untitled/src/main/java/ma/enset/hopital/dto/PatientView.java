@@ -0,0 +1,23 @@
+package ma.enset.hopital.dto;
+
+import lombok.Value;
+import ma.enset.hopital.entities.Patient;
+
+import java.util.Date;
+
+/**
+ * Read-only projection of a patient, built by JPQL constructor expressions so the list views
+ * never load managed entities.
+ */
+@Value
+public class PatientView {
+    Long id;
+    String nom;
+    Date dateNaissance;
+    boolean malade;
+    int score;
+
+    public static PatientView of(Patient patient) {
+        return new PatientView(patient.getId(), patient.getNom(), patient.getDateNaissance(), patient.isMalade(), patient.getScore());
+    }
+}
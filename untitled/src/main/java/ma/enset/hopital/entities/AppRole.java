@@ -2,12 +2,18 @@ package ma.enset.hopital.entities;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
+@Cacheable
+// roles are created once and never updated
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY, region = "app-role")
 @Data
 @NoArgsConstructor @AllArgsConstructor @Builder
 public class AppRole {
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Id @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "app_role_seq")
+    @SequenceGenerator(name = "app_role_seq", sequenceName = "app_role_seq", allocationSize = 50)
     private Long id;
     private String roleName;
 }
@@ -2,19 +2,31 @@ package ma.enset.hopital.entities;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.ArrayList;
 import java.util.Collection;
 
 @Entity
+@NamedEntityGraph(name = "AppUser.roles", attributeNodes = @NamedAttributeNode("roles"))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "app-user")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor @Builder
 public class AppUser {
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Id @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "app_user_seq")
+    @SequenceGenerator(name = "app_user_seq", sequenceName = "app_user_seq", allocationSize = 50)
     private Long id;
     private String username;
     private String password;
-    @ManyToMany(fetch = FetchType.EAGER)
+    // lazy: the login path fetches it through the AppUser.roles entity graph, user listings
+    // initialize the collections of up to 50 users per query
+    @ManyToMany(fetch = FetchType.LAZY)
+    @BatchSize(size = 50)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "app-user-roles")
+    @ToString.Exclude @EqualsAndHashCode.Exclude
     private Collection<AppRole> roles = new ArrayList<>();
 }
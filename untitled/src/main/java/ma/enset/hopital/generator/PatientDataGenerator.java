@@ -0,0 +1,91 @@
+package ma.enset.hopital.generator;
+
+import ma.enset.hopital.entities.Patient;
+import ma.enset.hopital.imports.PatientBatchWriter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Loads synthetic patients for load and scale tests, like the commented-out seeding of
+ * HopitalApplication.run but at production scale:
+ * {@code java -jar hopital.jar --spring.profiles.active=generate --hopital.generator.rows=10000000
+ * --spring.main.web-application-type=none}
+ * <p>
+ * The range of rows is split with fork/join down to chunks that are generated and
+ * written in parallel, each chunk in its own transaction with batched inserts.
+ */
+@Component
+@Profile("generate")
+public class PatientDataGenerator implements CommandLineRunner {
+
+    private final PatientBatchWriter patientBatchWriter;
+    private final PatientGenerator generator;
+    private final long rows;
+    private final int chunkSize;
+    private final int parallelism;
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    public PatientDataGenerator(PatientBatchWriter patientBatchWriter,
+                                @Value("${hopital.generator.rows:1000000}") long rows,
+                                @Value("${hopital.generator.seed:42}") long seed,
+                                @Value("${hopital.generator.malade-ratio:0.3}") double maladeRatio,
+                                @Value("${hopital.generator.chunk-size:10000}") int chunkSize,
+                                @Value("${hopital.generator.parallelism:0}") int parallelism,
+                                @Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize) {
+        this.patientBatchWriter = patientBatchWriter;
+        this.generator = new PatientGenerator(seed, maladeRatio);
+        this.rows = rows;
+        this.chunkSize = chunkSize;
+        // every worker holds a connection, leave some to the rest of the application
+        this.parallelism = parallelism > 0 ? parallelism
+                : Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), poolSize - 2));
+    }
+
+    @Override
+    public void run(String... args) {
+        System.out.println(">>> Generating " + rows + " patients with " + parallelism + " workers…");
+        long start = System.currentTimeMillis();
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.invoke(new Range(0, rows));
+        } finally {
+            pool.shutdown();
+        }
+        long millis = Math.max(1, System.currentTimeMillis() - start);
+        System.out.println(">>> Generated " + written.get() + " patients (" + failed.get() + " failed) in "
+                + millis + " ms, " + written.get() * 1000 / millis + " rows/s");
+    }
+
+    private class Range extends RecursiveAction {
+        private final long from;
+        private final long to;
+
+        Range(long from, long to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= chunkSize) {
+                List<Patient> patients = new ArrayList<>((int) (to - from));
+                for (long i = from; i < to; i++) patients.add(generator.generate(i));
+                written.addAndGet(patientBatchWriter.insert(patients, (index, e) -> failed.incrementAndGet()));
+                return;
+            }
+            // split on a chunk boundary
+            long chunks = (to - from + chunkSize - 1) / chunkSize;
+            long middle = from + (chunks / 2) * chunkSize;
+            invokeAll(new Range(from, middle), new Range(middle, to));
+        }
+    }
+}
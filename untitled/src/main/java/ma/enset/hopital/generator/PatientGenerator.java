@@ -0,0 +1,71 @@
+package ma.enset.hopital.generator;
+
+import ma.enset.hopital.entities.Patient;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic synthetic patients: row {@code i} only depends on the seed and {@code i},
+ * so any range can be generated by any thread in any order with the same result.
+ * <ul>
+ *     <li>nom: first and last name drawn from a Zipf-like distribution, a few names are very common</li>
+ *     <li>dateNaissance: ages around 50 (normal, sd 22) clamped to 0..100, relative to 2025-01-01</li>
+ *     <li>malade: true with the configured ratio</li>
+ *     <li>score: uniform in 1..100</li>
+ * </ul>
+ */
+public class PatientGenerator {
+
+    private static final String[] FIRST_NAMES = {"Mohamed", "Fatima", "Youness", "Khadija", "Ahmed", "Amina", "Said",
+            "Hafsa", "Omar", "Salma", "Karim", "Imane", "Yassine", "Sara", "Hamza", "Meryem", "Ayoub", "Nadia",
+            "Mehdi", "Zineb", "Anas", "Hind", "Rachid", "Leila", "Adil", "Samira", "Ilyas", "Houda", "Reda", "Asmae"};
+    private static final String[] LAST_NAMES = {"Alaoui", "Bennani", "Idrissi", "Tazi", "Berrada", "Amrani", "Chraibi",
+            "Fassi", "Kettani", "Lahlou", "Benjelloun", "Sqalli", "Ouazzani", "Naciri", "Hajji", "Ziani", "Rami",
+            "Cherkaoui", "Bouzid", "Mansouri", "Saidi", "Tahiri", "Zouaki", "Guessous", "Jabri"};
+    private static final LocalDate REFERENCE = LocalDate.of(2025, 1, 1);
+
+    private static final double[] FIRST_CDF = zipf(FIRST_NAMES.length, 1.1);
+    private static final double[] LAST_CDF = zipf(LAST_NAMES.length, 0.9);
+
+    private final long seed;
+    private final double maladeRatio;
+
+    public PatientGenerator(long seed, double maladeRatio) {
+        this.seed = seed;
+        this.maladeRatio = maladeRatio;
+    }
+
+    public Patient generate(long index) {
+        SplittableRandom random = new SplittableRandom(seed ^ (index * 0x9E3779B97F4A7C15L));
+        String nom = FIRST_NAMES[pick(FIRST_CDF, random)] + " " + LAST_NAMES[pick(LAST_CDF, random)];
+        if (nom.length() > 20) nom = nom.substring(0, 20);
+        double age = Math.max(0, Math.min(100, random.nextGaussian(50, 22)));
+        LocalDate birth = REFERENCE.minusDays((long) (age * 365.25) + random.nextInt(365));
+        return Patient.builder()
+                .nom(nom)
+                .dateNaissance(Date.from(birth.atStartOfDay().toInstant(ZoneOffset.UTC)))
+                .malade(random.nextDouble() < maladeRatio)
+                .score(1 + random.nextInt(100))
+                .build();
+    }
+
+    private static double[] zipf(int n, double exponent) {
+        double[] cdf = new double[n];
+        double sum = 0;
+        for (int k = 0; k < n; k++) {
+            sum += 1 / Math.pow(k + 1, exponent);
+            cdf[k] = sum;
+        }
+        for (int k = 0; k < n; k++) cdf[k] /= sum;
+        return cdf;
+    }
+
+    private static int pick(double[] cdf, SplittableRandom random) {
+        int pos = Arrays.binarySearch(cdf, random.nextDouble());
+        return Math.min(pos >= 0 ? pos : -pos - 1, cdf.length - 1);
+    }
+}
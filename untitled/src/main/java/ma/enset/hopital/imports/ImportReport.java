@@ -0,0 +1,55 @@
+package ma.enset.hopital.imports;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a bulk patient import: counters, throughput and the first
+ * {@code maxReportedErrors} rejected rows with their line number.
+ */
+@Getter
+public class ImportReport {
+
+    public record RowError(long line, String message) {
+    }
+
+    private final int maxReportedErrors;
+    private final List<RowError> errors = new ArrayList<>();
+    private long rowsRead;
+    private long rowsImported;
+    private long rowsRejected;
+    private long elapsedMillis;
+
+    public ImportReport(int maxReportedErrors) {
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    void read(int rows) {
+        rowsRead += rows;
+    }
+
+    void imported(int rows) {
+        rowsImported += rows;
+    }
+
+    void reject(long line, String message) {
+        rowsRejected++;
+        if (errors.size() < maxReportedErrors) errors.add(new RowError(line, message));
+    }
+
+    void finish(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public long getRowsPerSecond() {
+        return elapsedMillis == 0 ? rowsImported : rowsImported * 1000 / elapsedMillis;
+    }
+
+    @Override
+    public String toString() {
+        return rowsRead + " rows read, " + rowsImported + " imported, " + rowsRejected + " rejected in "
+                + elapsedMillis + " ms (" + getRowsPerSecond() + " rows/s)";
+    }
+}
@@ -0,0 +1,72 @@
+package ma.enset.hopital.imports;
+
+import jakarta.persistence.CacheStoreMode;
+import jakarta.persistence.EntityManager;
+import ma.enset.hopital.entities.Patient;
+import org.hibernate.jpa.SpecHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * Inserts patients in one transaction per chunk, flushing and clearing the persistence
+ * context every {@code batchSize} rows. With the pooled sequence ids, Hibernate groups
+ * the inserts into JDBC batches (hibernate.jdbc.batch_size). When the database rejects
+ * a chunk, it is rolled back and replayed row by row so that only the offending rows
+ * are reported.
+ */
+@Component
+public class PatientBatchWriter {
+
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    public PatientBatchWriter(EntityManager entityManager, PlatformTransactionManager transactionManager,
+                              @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int batchSize) {
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * @param onError receives the index in {@code patients} and the cause of every row that could not be inserted
+     * @return the number of rows inserted
+     */
+    public int insert(List<Patient> patients, BiConsumer<Integer, RuntimeException> onError) {
+        if (patients.isEmpty()) return 0;
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                // a bulk load must not flood the second-level cache
+                entityManager.setProperty(SpecHints.HINT_SPEC_CACHE_STORE_MODE, CacheStoreMode.BYPASS);
+                for (int i = 0; i < patients.size(); i++) {
+                    entityManager.persist(patients.get(i));
+                    if ((i + 1) % batchSize == 0) {
+                        entityManager.flush();
+                        entityManager.clear();
+                    }
+                }
+            });
+            return patients.size();
+        } catch (RuntimeException batchFailure) {
+            int inserted = 0;
+            for (int i = 0; i < patients.size(); i++) {
+                Patient p = patients.get(i);
+                // ids handed out by the rolled back chunk are discarded
+                p.setId(null);
+                try {
+                    transactionTemplate.executeWithoutResult(status -> entityManager.persist(p));
+                    inserted++;
+                } catch (RuntimeException e) {
+                    p.setId(null);
+                    onError.accept(i, e);
+                }
+            }
+            return inserted;
+        }
+    }
+}
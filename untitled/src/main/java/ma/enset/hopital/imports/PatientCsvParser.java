@@ -0,0 +1,98 @@
+package ma.enset.hopital.imports;
+
+import ma.enset.hopital.entities.Patient;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Maps CSV lines to {@link Patient} objects. The header names the columns
+ * (nom, dateNaissance, malade, score, in any order); other columns such as the id
+ * written by the CSV export are ignored. Fields may be quoted, quotes are doubled.
+ */
+class PatientCsvParser {
+
+    private final int nom;
+    private final int dateNaissance;
+    private final int malade;
+    private final int score;
+
+    PatientCsvParser(String header) {
+        List<String> columns = split(header);
+        nom = columns.indexOf("nom");
+        dateNaissance = columns.indexOf("dateNaissance");
+        malade = columns.indexOf("malade");
+        score = columns.indexOf("score");
+        if (nom < 0) throw new IllegalArgumentException("The CSV header must contain a 'nom' column");
+    }
+
+    Patient parse(String line) {
+        List<String> fields = split(line);
+        Patient patient = new Patient();
+        patient.setNom(field(fields, nom));
+        String date = field(fields, dateNaissance);
+        if (date != null && !date.isEmpty()) {
+            try {
+                patient.setDateNaissance(Date.from(LocalDate.parse(date).atStartOfDay(ZoneId.systemDefault()).toInstant()));
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("dateNaissance is not a yyyy-MM-dd date: " + date);
+            }
+        }
+        String sick = field(fields, malade);
+        patient.setMalade(parseMalade(sick));
+        String sc = field(fields, score);
+        if (sc != null && !sc.isEmpty()) {
+            try {
+                patient.setScore(Integer.parseInt(sc.trim()));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("score is not a number: " + sc);
+            }
+        }
+        return patient;
+    }
+
+    // an empty or missing value is not sick, anything but true/false/1/0 is rejected
+    private static boolean parseMalade(String sick) {
+        if (sick == null || sick.isBlank()) return false;
+        String value = sick.trim();
+        if (value.equalsIgnoreCase("true") || value.equals("1")) return true;
+        if (value.equalsIgnoreCase("false") || value.equals("0")) return false;
+        throw new IllegalArgumentException("malade is not true, false, 1 or 0: " + sick);
+    }
+
+    private static String field(List<String> fields, int index) {
+        return index >= 0 && index < fields.size() ? fields.get(index) : null;
+    }
+
+    static List<String> split(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,43 @@
+package ma.enset.hopital.imports;
+
+import ma.enset.hopital.imports.ImportReport.RowError;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Imports a CSV file at startup, e.g.
+ * {@code java -jar hopital.jar --hopital.import.file=patients.csv --spring.main.web-application-type=none}
+ */
+@Component
+@ConditionalOnProperty("hopital.import.file")
+public class PatientImportRunner implements CommandLineRunner {
+
+    private final PatientImportService patientImportService;
+    private final Path file;
+
+    public PatientImportRunner(PatientImportService patientImportService,
+                               @Value("${hopital.import.file}") Path file) {
+        this.patientImportService = patientImportService;
+        this.file = file;
+    }
+
+    @Override
+    public void run(String... args) throws Exception {
+        System.out.println(">>> Importing patients from " + file);
+        ImportReport report;
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            report = patientImportService.importCsv(reader);
+        }
+        for (RowError error : report.getErrors()) {
+            System.out.println(">>> line " + error.line() + ": " + error.message());
+        }
+        System.out.println(">>> Import complete: " + report);
+    }
+}
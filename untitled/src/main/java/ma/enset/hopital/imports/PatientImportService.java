@@ -0,0 +1,102 @@
+package ma.enset.hopital.imports;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import ma.enset.hopital.entities.Patient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk patient import from CSV. The input is read incrementally in chunks; each chunk
+ * is parsed and checked against the Patient Bean Validation constraints in parallel,
+ * then its valid rows are inserted with {@link PatientBatchWriter}. Invalid rows are
+ * reported with their line number and never abort the load.
+ */
+@Service
+public class PatientImportService {
+
+    private record Line(long number, String text) {
+    }
+
+    private record ParsedLine(long number, Patient patient, String error) {
+    }
+
+    private final Validator validator;
+    private final PatientBatchWriter patientBatchWriter;
+    private final int chunkSize;
+    private final int maxReportedErrors;
+
+    public PatientImportService(Validator validator, PatientBatchWriter patientBatchWriter,
+                                @Value("${hopital.import.chunk-size:1000}") int chunkSize,
+                                @Value("${hopital.import.max-reported-errors:1000}") int maxReportedErrors) {
+        this.validator = validator;
+        this.patientBatchWriter = patientBatchWriter;
+        this.chunkSize = chunkSize;
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    public ImportReport importCsv(Reader input) throws IOException {
+        long start = System.currentTimeMillis();
+        ImportReport report = new ImportReport(maxReportedErrors);
+        BufferedReader reader = new BufferedReader(input, 64 * 1024);
+        String header = reader.readLine();
+        if (header == null) throw new IllegalArgumentException("The CSV file is empty");
+        PatientCsvParser parser = new PatientCsvParser(header.replace("\uFEFF", ""));
+
+        List<Line> chunk = new ArrayList<>(chunkSize);
+        long lineNumber = 1;
+        String text;
+        while ((text = reader.readLine()) != null) {
+            lineNumber++;
+            if (text.isBlank()) continue;
+            chunk.add(new Line(lineNumber, text));
+            if (chunk.size() == chunkSize) {
+                process(chunk, parser, report);
+                chunk = new ArrayList<>(chunkSize);
+            }
+        }
+        process(chunk, parser, report);
+        report.finish(System.currentTimeMillis() - start);
+        return report;
+    }
+
+    private void process(List<Line> chunk, PatientCsvParser parser, ImportReport report) {
+        if (chunk.isEmpty()) return;
+        report.read(chunk.size());
+        List<ParsedLine> parsed = chunk.parallelStream().map(line -> parse(line, parser)).toList();
+
+        List<ParsedLine> valid = new ArrayList<>(parsed.size());
+        for (ParsedLine line : parsed) {
+            if (line.error() != null) report.reject(line.number(), line.error());
+            else valid.add(line);
+        }
+        int inserted = patientBatchWriter.insert(valid.stream().map(ParsedLine::patient).toList(),
+                (i, e) -> report.reject(valid.get(i).number(), NestedExceptionUtils.getMostSpecificCause(e).getMessage()));
+        report.imported(inserted);
+    }
+
+    private ParsedLine parse(Line line, PatientCsvParser parser) {
+        Patient patient;
+        try {
+            patient = parser.parse(line.text());
+        } catch (IllegalArgumentException e) {
+            return new ParsedLine(line.number(), null, e.getMessage());
+        }
+        Set<ConstraintViolation<Patient>> violations = validator.validate(patient);
+        if (violations.isEmpty()) return new ParsedLine(line.number(), patient, null);
+        String error = violations.stream()
+                .map(v -> v.getPropertyPath() + " " + v.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+        return new ParsedLine(line.number(), null, error);
+    }
+}
@@ -1,8 +1,12 @@
 package ma.enset.hopital.repository;
 
+import jakarta.persistence.QueryHint;
 import ma.enset.hopital.entities.AppRole;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
 public interface AppRoleRepository extends JpaRepository<AppRole, Long> {
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     AppRole findByRoleName(String roleName);
 }
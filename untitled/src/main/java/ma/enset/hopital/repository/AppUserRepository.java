@@ -1,8 +1,15 @@
 package ma.enset.hopital.repository;
 
+import jakarta.persistence.QueryHint;
 import ma.enset.hopital.entities.AppUser;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
 public interface AppUserRepository extends JpaRepository<AppUser, Long> {
+    // user and roles in a single join query
+    @EntityGraph("AppUser.roles")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     AppUser findByUsername(String username);
 }
\ No newline at end of file
@@ -1,19 +1,68 @@
 package ma.enset.hopital.repository;
 
+import jakarta.persistence.QueryHint;
+import ma.enset.hopital.dto.PatientView;
 import ma.enset.hopital.entities.Patient;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
-public interface PatientRepository extends JpaRepository<Patient, Long> {
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface PatientRepository extends JpaRepository<Patient, Long>, JpaSpecificationExecutor<Patient>, PatientRepositoryCustom {
+    // the entity finders below are read-only loads: Hibernate keeps no dirty-checking snapshot of the results.
+    // The application reads through the PatientView projections further down; findByNomContains, chercher,
+    // findSliceByNomContains and findByNomContainsAfter remain as the entity baselines of the benchmarks module
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
     Page<Patient> findByNomContains(String keyword, Pageable pageable);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
     @Query("select p from Patient p where p.nom like :x")
     Page<Patient> chercher(@Param("x") String keyword, Pageable pageable);
 
+    // Slice variants fetch one extra row to know whether a next page exists, without the count query
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    Slice<Patient> findSliceByNomContains(String keyword, Pageable pageable);
+
+    // same case-insensitive match as findViewsByNomContains, whose totals it stands in for
+    @Query("select count(p) from Patient p where lower(p.nom) like lower(concat('%', :x, '%'))")
+    long countByNomContains(@Param("x") String keyword);
+
+    // keyset (seek) pagination: resumes after the last id seen instead of skipping OFFSET rows,
+    // so the cost of a page does not depend on how deep it is. Pass an unsorted Pageable.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("select p from Patient p where p.nom like %:x% and p.id > :after order by p.id")
+    List<Patient> findByNomContainsAfter(@Param("x") String keyword, @Param("after") long afterId, Pageable pageable);
+
+    // DTO projections used by the list views and the export, nothing enters the persistence context.
+    // The keyword searches answer for PatientNameIndex while it loads, so they match like it does:
+    // case-insensitively, in id order
+    @Query(value = "select new ma.enset.hopital.dto.PatientView(p.id, p.nom, p.dateNaissance, p.malade, p.score) from Patient p where lower(p.nom) like lower(concat('%', :x, '%')) order by p.id",
+            countQuery = "select count(p) from Patient p where lower(p.nom) like lower(concat('%', :x, '%'))")
+    Page<PatientView> findViewsByNomContains(@Param("x") String keyword, Pageable pageable);
+
+    @Query("select new ma.enset.hopital.dto.PatientView(p.id, p.nom, p.dateNaissance, p.malade, p.score) from Patient p where lower(p.nom) like lower(concat('%', :x, '%')) order by p.id")
+    Slice<PatientView> findViewSliceByNomContains(@Param("x") String keyword, Pageable pageable);
+
+    @Query("select new ma.enset.hopital.dto.PatientView(p.id, p.nom, p.dateNaissance, p.malade, p.score) from Patient p where lower(p.nom) like lower(concat('%', :x, '%')) and p.id > :after order by p.id")
+    List<PatientView> findViewsByNomContainsAfter(@Param("x") String keyword, @Param("after") long afterId, Pageable pageable);
 
+    @Query("select new ma.enset.hopital.dto.PatientView(p.id, p.nom, p.dateNaissance, p.malade, p.score) from Patient p where p.id in :ids order by p.id")
+    List<PatientView> findViewsByIdIn(@Param("ids") Collection<Long> ids);
 
+    @Query("select new ma.enset.hopital.dto.PatientView(p.id, p.nom, p.dateNaissance, p.malade, p.score) from Patient p order by p.id")
+    List<PatientView> findAllViews();
 
+    // cursor-backed stream for exports, must be consumed inside a transaction and closed
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select new ma.enset.hopital.dto.PatientView(p.id, p.nom, p.dateNaissance, p.malade, p.score) from Patient p order by p.id")
+    Stream<PatientView> streamAllViews();
 }
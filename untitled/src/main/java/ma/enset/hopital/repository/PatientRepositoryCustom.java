@@ -0,0 +1,31 @@
+package ma.enset.hopital.repository;
+
+import ma.enset.hopital.dto.PatientView;
+import ma.enset.hopital.entities.Patient;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Queries Spring Data cannot derive: the field-selection queries of the REST API, where only the
+ * requested columns are selected (JPA tuple queries) and the rows come back as maps ordered by id,
+ * and the pages of the criteria search, as PatientView projections.
+ */
+public interface PatientRepositoryCustom {
+
+    List<String> FIELDS = List.of("id", "nom", "dateNaissance", "malade", "score");
+
+    List<Map<String, Object>> findFieldsByNomContainsAfter(List<String> fields, String keyword, long afterId, int limit);
+
+    List<Map<String, Object>> findFieldsByIdIn(List<String> fields, Collection<Long> ids);
+
+    // projections matching spec ordered by id; the count query only runs when the page size does not tell the total
+    Page<PatientView> findViews(Specification<Patient> spec, Pageable pageable);
+
+    // up to limit projections matching spec with an id greater than afterId, ordered by id
+    List<PatientView> findViewsAfter(Specification<Patient> spec, long afterId, int limit);
+}
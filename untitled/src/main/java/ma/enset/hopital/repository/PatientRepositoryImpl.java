@@ -0,0 +1,104 @@
+package ma.enset.hopital.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CompoundSelection;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import ma.enset.hopital.dto.PatientView;
+import ma.enset.hopital.entities.Patient;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+class PatientRepositoryImpl implements PatientRepositoryCustom {
+
+    private final EntityManager entityManager;
+
+    PatientRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<Map<String, Object>> findFieldsByNomContainsAfter(List<String> fields, String keyword, long afterId, int limit) {
+        TypedQuery<Tuple> query = entityManager.createQuery(
+                        "select " + select(fields) + " from Patient p where lower(p.nom) like :x and p.id > :after order by p.id", Tuple.class)
+                .setParameter("x", "%" + keyword.toLowerCase(Locale.ROOT) + "%")
+                .setParameter("after", afterId)
+                .setMaxResults(limit);
+        return toMaps(fields, query);
+    }
+
+    @Override
+    public List<Map<String, Object>> findFieldsByIdIn(List<String> fields, Collection<Long> ids) {
+        if (ids.isEmpty()) return List.of();
+        TypedQuery<Tuple> query = entityManager.createQuery(
+                        "select " + select(fields) + " from Patient p where p.id in :ids order by p.id", Tuple.class)
+                .setParameter("ids", ids);
+        return toMaps(fields, query);
+    }
+
+    @Override
+    public Page<PatientView> findViews(Specification<Patient> spec, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<PatientView> query = cb.createQuery(PatientView.class);
+        Root<Patient> root = query.from(Patient.class);
+        query.select(view(cb, root))
+                .where(spec.toPredicate(root, query, cb))
+                .orderBy(cb.asc(root.get("id")));
+        List<PatientView> content = entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+        return PageableExecutionUtils.getPage(content, pageable, () -> {
+            CriteriaQuery<Long> count = cb.createQuery(Long.class);
+            Root<Patient> counted = count.from(Patient.class);
+            count.select(cb.count(counted)).where(spec.toPredicate(counted, count, cb));
+            return entityManager.createQuery(count).getSingleResult();
+        });
+    }
+
+    @Override
+    public List<PatientView> findViewsAfter(Specification<Patient> spec, long afterId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<PatientView> query = cb.createQuery(PatientView.class);
+        Root<Patient> root = query.from(Patient.class);
+        query.select(view(cb, root))
+                .where(spec.toPredicate(root, query, cb), cb.greaterThan(root.<Long>get("id"), afterId))
+                .orderBy(cb.asc(root.get("id")));
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+
+    private static CompoundSelection<PatientView> view(CriteriaBuilder cb, Root<Patient> root) {
+        return cb.construct(PatientView.class, root.get("id"), root.get("nom"), root.get("dateNaissance"),
+                root.get("malade"), root.get("score"));
+    }
+
+    // fields are checked against FIELDS before they reach the JPQL text
+    private static String select(List<String> fields) {
+        StringBuilder select = new StringBuilder();
+        for (String field : fields) {
+            if (!FIELDS.contains(field)) throw new IllegalArgumentException("Unknown field: " + field);
+            if (!select.isEmpty()) select.append(", ");
+            select.append("p.").append(field).append(" as ").append(field);
+        }
+        return select.toString();
+    }
+
+    private static List<Map<String, Object>> toMaps(List<String> fields, TypedQuery<Tuple> query) {
+        return query.getResultList().stream().map(tuple -> {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (String field : fields) row.put(field, tuple.get(field));
+            return row;
+        }).toList();
+    }
+}
@@ -0,0 +1,54 @@
+package ma.enset.hopital.repository;
+
+import jakarta.persistence.criteria.Predicate;
+import ma.enset.hopital.dto.PatientCriteria;
+import ma.enset.hopital.entities.Patient;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Search predicates over Patient. Each one is sargable so it can be resolved by the
+ * indexes of the V3/V4 migrations: a left-anchored LIKE on nom, half-open ranges on
+ * date_naissance and score, and an equality on malade.
+ */
+public final class PatientSpecifications {
+
+    private PatientSpecifications() {
+    }
+
+    public static Specification<Patient> matching(PatientCriteria criteria, String keyword) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (criteria.getNom() != null && !criteria.getNom().isBlank())
+                predicates.add(cb.like(root.get("nom"), escapeLike(criteria.getNom().trim()) + "%", '\\'));
+            if (criteria.getBornFrom() != null)
+                predicates.add(cb.greaterThanOrEqualTo(root.get("dateNaissance"), startOf(criteria.getBornFrom())));
+            if (criteria.getBornTo() != null)
+                predicates.add(cb.lessThan(root.get("dateNaissance"), startOf(criteria.getBornTo().plusDays(1))));
+            if (criteria.getMalade() != null)
+                predicates.add(cb.equal(root.get("malade"), criteria.getMalade()));
+            if (criteria.getScoreMin() != null)
+                predicates.add(cb.greaterThanOrEqualTo(root.get("score"), criteria.getScoreMin()));
+            if (criteria.getScoreMax() != null)
+                predicates.add(cb.lessThanOrEqualTo(root.get("score"), criteria.getScoreMax()));
+            // the free-text keyword keeps its substring, case-insensitive semantics and is only a residual filter
+            if (keyword != null && !keyword.isEmpty())
+                predicates.add(cb.like(cb.lower(root.get("nom")), "%" + escapeLike(keyword.toLowerCase(Locale.ROOT)) + "%", '\\'));
+            return cb.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+
+    private static Date startOf(LocalDate day) {
+        return Date.from(day.atStartOfDay(ZoneId.systemDefault()).toInstant());
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,43 @@
+package ma.enset.hopital.search;
+
+import java.util.Arrays;
+
+/**
+ * Sorted, duplicate-free list of patient ids backed by a primitive long array.
+ * Not thread-safe, {@link PatientNameIndex} guards it with its lock.
+ */
+final class LongPostings {
+
+    private long[] ids = new long[4];
+    private int size;
+
+    int size() {
+        return size;
+    }
+
+    boolean contains(long id) {
+        return Arrays.binarySearch(ids, 0, size, id) >= 0;
+    }
+
+    void add(long id) {
+        int pos = Arrays.binarySearch(ids, 0, size, id);
+        if (pos >= 0) return;
+        pos = -pos - 1;
+        if (size == ids.length) ids = Arrays.copyOf(ids, size + (size >> 1) + 1);
+        System.arraycopy(ids, pos, ids, pos + 1, size - pos);
+        ids[pos] = id;
+        size++;
+    }
+
+    boolean remove(long id) {
+        int pos = Arrays.binarySearch(ids, 0, size, id);
+        if (pos < 0) return false;
+        System.arraycopy(ids, pos + 1, ids, pos, size - pos - 1);
+        size--;
+        return true;
+    }
+
+    long get(int i) {
+        return ids[i];
+    }
+}
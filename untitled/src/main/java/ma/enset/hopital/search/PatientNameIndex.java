@@ -0,0 +1,234 @@
+package ma.enset.hopital.search;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import ma.enset.hopital.service.PatientTableVersion;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory trigram inverted index over Patient.nom, used to answer substring
+ * searches ({@code nom like '%kw%'}) without scanning the patient table.
+ * <p>
+ * Every lower-cased trigram of a name maps to the sorted ids of the patients whose
+ * name contains it. A search intersects the posting lists of the keyword trigrams
+ * and then checks the remaining candidates against the stored names, so results are
+ * exact. Matching is case-insensitive, like LIKE under the default MySQL/MariaDB collation.
+ * <p>
+ * The index is loaded in the background once the application is ready; until then
+ * {@link #search(String)} returns null and callers fall back to SQL.
+ */
+@Component
+public class PatientNameIndex implements MeterBinder {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, LongPostings> postings = new HashMap<>();
+    private final Map<Long, String> names = new HashMap<>();
+    // ids written by the application while the initial load runs, the loader must not overwrite them
+    private final Set<Long> touchedDuringLoad = new HashSet<>();
+    private final AtomicBoolean loading = new AtomicBoolean();
+    // a reload requested while a load runs, the loader starts over once it finishes
+    private final AtomicBoolean reloadPending = new AtomicBoolean();
+    private volatile boolean ready;
+
+    public PatientNameIndex(JdbcTemplate jdbcTemplate,
+                            @Value("${hopital.patients.name-index.enabled:true}") boolean enabled) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return names.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("hopital.patients.name.index.ready", this, i -> i.isReady() ? 1 : 0).register(registry);
+        Gauge.builder("hopital.patients.name.index.size", this, PatientNameIndex::size).register(registry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!enabled || !loading.compareAndSet(false, true)) return;
+        startLoader();
+    }
+
+    private void startLoader() {
+        Thread loader = new Thread(this::load, "patient-name-index");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    /**
+     * Rebuilds the index from the table, for rows written without JPA (SQL run outside the application).
+     * Searches fall back to SQL until the reload completes. A reload requested while one
+     * is running restarts it, so rows written before the call are never missed.
+     */
+    public void reload() {
+        if (!enabled) return;
+        ready = false;
+        reloadPending.set(true);
+        if (loading.compareAndSet(false, true)) startLoader();
+    }
+
+    private void load() {
+        do {
+            try {
+                if (reloadPending.getAndSet(false)) clear();
+                doLoad();
+            } finally {
+                loading.set(false);
+            }
+        } while (reloadPending.get() && loading.compareAndSet(false, true));
+    }
+
+    private void clear() {
+        lock.writeLock().lock();
+        try {
+            ready = false;
+            postings.clear();
+            names.clear();
+            touchedDuringLoad.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void doLoad() {
+        JdbcTemplate reader = new JdbcTemplate(jdbcTemplate.getDataSource());
+        reader.setFetchSize(1000);
+        reader.query("select id, nom from patient", (RowCallbackHandler) rs -> {
+            long id = rs.getLong(1);
+            String nom = rs.getString(2);
+            lock.writeLock().lock();
+            try {
+                if (!touchedDuringLoad.contains(id)) index(id, nom);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+        lock.writeLock().lock();
+        try {
+            touchedDuringLoad.clear();
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // committed JPA writes, applied before the table version moves (see PatientTableVersion)
+    @EventListener
+    public void onChanged(PatientTableVersion.Changed changed) {
+        changed.patients().forEach((id, nom) -> {
+            if (nom == null) remove(id);
+            else put(id, nom);
+        });
+    }
+
+    // before the first load starts there is nothing to update, the load will read the committed row
+    public void put(long id, String nom) {
+        if (!enabled || !ready && !loading.get()) return;
+        lock.writeLock().lock();
+        try {
+            if (!ready) touchedDuringLoad.add(id);
+            unindex(id);
+            index(id, nom);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        if (!enabled || !ready && !loading.get()) return;
+        lock.writeLock().lock();
+        try {
+            if (!ready) touchedDuringLoad.add(id);
+            unindex(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return the ids of the patients whose name contains the keyword, in ascending order,
+     * or null when the index cannot answer (still warming up, keyword shorter than a trigram)
+     */
+    public long[] search(String keyword) {
+        if (!ready || keyword == null || keyword.length() < 3) return null;
+        String kw = keyword.toLowerCase(Locale.ROOT);
+        lock.readLock().lock();
+        try {
+            LongPostings[] lists = new LongPostings[kw.length() - 2];
+            for (int i = 0; i < lists.length; i++) {
+                lists[i] = postings.get(trigram(kw, i));
+                if (lists[i] == null) return new long[0];
+            }
+            Arrays.sort(lists, (a, b) -> Integer.compare(a.size(), b.size()));
+            LongPostings smallest = lists[0];
+            long[] result = new long[smallest.size()];
+            int n = 0;
+            candidates:
+            for (int i = 0; i < smallest.size(); i++) {
+                long id = smallest.get(i);
+                for (int j = 1; j < lists.length; j++) {
+                    if (!lists[j].contains(id)) continue candidates;
+                }
+                // trigrams may match out of order, confirm the actual substring
+                if (names.get(id).contains(kw)) result[n++] = id;
+            }
+            return Arrays.copyOf(result, n);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void index(long id, String nom) {
+        if (nom == null) return;
+        String name = nom.toLowerCase(Locale.ROOT);
+        names.put(id, name);
+        for (int i = 0; i + 3 <= name.length(); i++) {
+            postings.computeIfAbsent(trigram(name, i), k -> new LongPostings()).add(id);
+        }
+    }
+
+    private void unindex(long id) {
+        String name = names.remove(id);
+        if (name == null) return;
+        for (int i = 0; i + 3 <= name.length(); i++) {
+            long key = trigram(name, i);
+            LongPostings list = postings.get(key);
+            if (list != null && list.remove(id) && list.size() == 0) postings.remove(key);
+        }
+    }
+
+    private static long trigram(String s, int i) {
+        return ((long) s.charAt(i) << 32) | ((long) s.charAt(i + 1) << 16) | s.charAt(i + 2);
+    }
+}
@@ -0,0 +1,33 @@
+package ma.enset.hopital.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.authentication.event.AbstractAuthenticationFailureEvent;
+import org.springframework.security.authentication.event.AuthenticationSuccessEvent;
+import org.springframework.stereotype.Component;
+
+/**
+ * Counts login outcomes from the authentication events published by Spring Security.
+ */
+@Component
+public class AuthenticationMetrics {
+
+    private final Counter successes;
+    private final Counter failures;
+
+    public AuthenticationMetrics(MeterRegistry meterRegistry) {
+        this.successes = Counter.builder("hopital.auth.attempts").tag("result", "success").register(meterRegistry);
+        this.failures = Counter.builder("hopital.auth.attempts").tag("result", "failure").register(meterRegistry);
+    }
+
+    @EventListener
+    public void onSuccess(AuthenticationSuccessEvent event) {
+        successes.increment();
+    }
+
+    @EventListener
+    public void onFailure(AbstractAuthenticationFailureEvent event) {
+        failures.increment();
+    }
+}
@@ -0,0 +1,152 @@
+package ma.enset.hopital.security;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * BCrypt encoder that runs hashing and verification on a small dedicated pool instead
+ * of the request thread, so a burst of logins cannot take every CPU away from page
+ * requests. When the queue is full, or a task waits longer than the timeout, the login
+ * is shed with an AuthenticationServiceException rather than queued without bound.
+ */
+public class PooledPasswordEncoder implements PasswordEncoder, DisposableBean, MeterBinder {
+
+    private final BCryptPasswordEncoder delegate;
+    private final int strength;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMillis;
+    private final AtomicLong rejected = new AtomicLong();
+    private volatile Timer verifyTimer;
+
+    public PooledPasswordEncoder(int strength, int threads, int queueCapacity, long timeoutMillis) {
+        this.strength = strength;
+        this.delegate = new BCryptPasswordEncoder(strength);
+        this.timeoutMillis = timeoutMillis;
+        AtomicInteger count = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> {
+            Thread t = new Thread(r, "bcrypt-" + count.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Picks the highest BCrypt strength, between 10 and 16, whose hash takes at most
+     * {@code targetMillis} on this machine.
+     */
+    public static int calibrate(long targetMillis) {
+        int strength = 10;
+        for (int candidate = 10; candidate <= 16; candidate++) {
+            BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(candidate);
+            long start = System.nanoTime();
+            encoder.encode("calibration");
+            long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            if (millis > targetMillis) break;
+            strength = candidate;
+        }
+        return strength;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return run(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        long start = System.nanoTime();
+        try {
+            return run(() -> delegate.matches(rawPassword, encodedPassword));
+        } finally {
+            Timer timer = verifyTimer;
+            if (timer != null) timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    // true for hashes made with a lower cost than the configured one, they get rehashed at next login
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T run(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+            throw new AuthenticationServiceException("Too many concurrent logins, please retry");
+        }
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejected.incrementAndGet();
+            throw new AuthenticationServiceException("Too many concurrent logins, please retry");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new AuthenticationServiceException("Interrupted while checking the password");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    public int getStrength() {
+        return strength;
+    }
+
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    public long getCompletedCount() {
+        return executor.getCompletedTaskCount();
+    }
+
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        verifyTimer = Timer.builder("hopital.auth.password.verify")
+                .description("BCrypt verification, queueing included")
+                .publishPercentileHistogram()
+                .register(registry);
+        Gauge.builder("hopital.auth.bcrypt.queue.depth", this, PooledPasswordEncoder::getQueueDepth).register(registry);
+        Gauge.builder("hopital.auth.bcrypt.active", this, PooledPasswordEncoder::getActiveCount).register(registry);
+        Gauge.builder("hopital.auth.bcrypt.strength", this, PooledPasswordEncoder::getStrength).register(registry);
+        FunctionCounter.builder("hopital.auth.bcrypt.rejected", rejected, AtomicLong::get).register(registry);
+        FunctionCounter.builder("hopital.auth.bcrypt.completed", this, PooledPasswordEncoder::getCompletedCount).register(registry);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
@@ -1,13 +1,14 @@
 package ma.enset.hopital.security;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 
 @Configuration
@@ -22,11 +23,17 @@ public class SecurityConfig {
                 .csrf(csrf -> csrf.disable())
                 .authorizeHttpRequests(auth -> auth
                         // allow access to static resources and login page
-                        .requestMatchers("/css/**", "/js/**", "/images/**", "/login").permitAll()
+                        .requestMatchers("/css/**", "/js/**", "/images/**", "/webjars/**", "/login").permitAll()
+                        // health checks and the Prometheus scraper, other actuator endpoints are for admins
+                        .requestMatchers("/actuator/health", "/actuator/prometheus").permitAll()
+                        .requestMatchers("/actuator/**").hasAuthority("ADMIN")
                         // only ADMIN can create/edit/delete patients
-                        .requestMatchers("/formPatients", "/save", "/delete", "/editPatient").hasAuthority("ADMIN")
+                        .requestMatchers("/formPatients", "/save", "/delete", "/editPatient", "/importPatients").hasAuthority("ADMIN")
+                        // JSON API: reads for USER or ADMIN, writes for ADMIN
+                        .requestMatchers(HttpMethod.GET, "/api/**").hasAnyAuthority("USER", "ADMIN")
+                        .requestMatchers("/api/**").hasAuthority("ADMIN")
                         // USER or ADMIN can view lists
-                        .requestMatchers("/index", "/patients").hasAnyAuthority("USER", "ADMIN")
+                        .requestMatchers("/index", "/patients", "/patients/**").hasAnyAuthority("USER", "ADMIN")
                         .anyRequest().authenticated()
                 )
                 .formLogin(form -> form
@@ -35,6 +42,8 @@ public class SecurityConfig {
                         .defaultSuccessUrl("/index", true)
                         .permitAll()
                 )
+                // API clients authenticate with HTTP Basic, browsers keep the login form
+                .httpBasic(Customizer.withDefaults())
                 .logout(logout -> logout
                         .logoutUrl("/logout")
                         .logoutSuccessUrl("/login?logout")
@@ -53,7 +62,16 @@ public class SecurityConfig {
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PooledPasswordEncoder passwordEncoder(
+            @Value("${hopital.security.bcrypt.strength:10}") int strength,
+            @Value("${hopital.security.bcrypt.target-millis:0}") long targetMillis,
+            @Value("${hopital.security.bcrypt.threads:0}") int threads,
+            @Value("${hopital.security.bcrypt.queue-capacity:100}") int queueCapacity,
+            @Value("${hopital.security.bcrypt.timeout-millis:5000}") long timeoutMillis) {
+        // a target duration overrides the fixed strength with one measured on this machine
+        int cost = targetMillis > 0 ? PooledPasswordEncoder.calibrate(targetMillis) : strength;
+        // by default half of the cores, the rest stays available for page requests
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        return new PooledPasswordEncoder(cost, poolSize, queueCapacity, timeoutMillis);
     }
 }
@@ -0,0 +1,107 @@
+package ma.enset.hopital.security;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserCache;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded (LRU) UserDetails cache with a time-to-live, in front of
+ * {@link UserDetailsServiceImpl}. Entries are copied in and out because Spring
+ * Security erases the password of the UserDetails it authenticated.
+ * AccountServiceImpl evicts a user whenever it changes the account or its roles.
+ */
+@Component
+public class UserDetailsCache implements UserCache, MeterBinder {
+
+    private record Entry(UserDetails user, long expiresAt) {
+    }
+
+    private final long ttlMillis;
+    private final Map<String, Entry> entries;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public UserDetailsCache(@Value("${hopital.security.user-cache.max-size:1000}") int maxSize,
+                            @Value("${hopital.security.user-cache.ttl:5m}") Duration ttl) {
+        this.ttlMillis = ttl.toMillis();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    @Override
+    public UserDetails getUserFromCache(String username) {
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(username);
+            if (entry != null && entry.expiresAt() <= System.currentTimeMillis()) {
+                entries.remove(username);
+                entry = null;
+            }
+        }
+        if (entry == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return User.withUserDetails(entry.user()).build();
+    }
+
+    @Override
+    public void putUserInCache(UserDetails user) {
+        Entry entry = new Entry(User.withUserDetails(user).build(), System.currentTimeMillis() + ttlMillis);
+        synchronized (entries) {
+            entries.put(user.getUsername(), entry);
+        }
+    }
+
+    @Override
+    public void removeUserFromCache(String username) {
+        synchronized (entries) {
+            entries.remove(username);
+        }
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("hopital.auth.user.cache.requests", hits, AtomicLong::get)
+                .tag("result", "hit").register(registry);
+        FunctionCounter.builder("hopital.auth.user.cache.requests", misses, AtomicLong::get)
+                .tag("result", "miss").register(registry);
+        Gauge.builder("hopital.auth.user.cache.size", this, UserDetailsCache::size).register(registry);
+    }
+}
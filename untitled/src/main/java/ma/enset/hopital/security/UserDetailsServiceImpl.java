@@ -1,32 +1,90 @@
 package ma.enset.hopital.security;
 
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import ma.enset.hopital.entities.AppUser;
 import ma.enset.hopital.repository.AppUserRepository;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 @Service
-@RequiredArgsConstructor
-public class UserDetailsServiceImpl implements UserDetailsService {
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
     private final AppUserRepository userRepo;
+    private final UserDetailsCache userCache;
+    private final Timer cachedLookups;
+    private final Timer databaseLookups;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public UserDetailsServiceImpl(AppUserRepository userRepo, UserDetailsCache userCache, MeterRegistry meterRegistry,
+                                  PlatformTransactionManager transactionManager) {
+        this.userRepo = userRepo;
+        this.userCache = userCache;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.cachedLookups = lookupTimer(meterRegistry, "cache");
+        this.databaseLookups = lookupTimer(meterRegistry, "database");
+    }
+
+    private static Timer lookupTimer(MeterRegistry registry, String source) {
+        return Timer.builder("hopital.auth.user.lookup")
+                .description("UserDetails lookup during authentication")
+                .tag("source", source)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
 
     @Override
     public UserDetails loadUserByUsername(String username) {
+        long start = System.nanoTime();
+        UserDetails cached = userCache.getUserFromCache(username);
+        if (cached != null) {
+            cachedLookups.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return cached;
+        }
+        try {
+            return readOnlyTransaction.execute(status -> loadFromDatabase(username));
+        } finally {
+            databaseLookups.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    // roles are lazy: a query-cache hit returns the user without the entity graph, so the
+    // collection may still have to be initialized (from the collection cache) inside the transaction
+    private UserDetails loadFromDatabase(String username) {
         AppUser user = userRepo.findByUsername(username);
         if (user == null)
             throw new UsernameNotFoundException("User not found");
         var authorities = user.getRoles().stream()
                 .map(r -> new SimpleGrantedAuthority(r.getRoleName()))
                 .collect(Collectors.toList());
-        return new org.springframework.security.core.userdetails.User(
+        UserDetails userDetails = new org.springframework.security.core.userdetails.User(
                 user.getUsername(), user.getPassword(), authorities
         );
+        userCache.putUserInCache(userDetails);
+        return userDetails;
+    }
+
+    // called by the authentication provider after a successful login when the stored hash
+    // was made with an older BCrypt cost (PasswordEncoder.upgradeEncoding)
+    @Override
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        AppUser user = userRepo.findByUsername(userDetails.getUsername());
+        if (user == null)
+            throw new UsernameNotFoundException("User not found");
+        user.setPassword(newPassword);
+        userRepo.save(user);
+        userCache.removeUserFromCache(user.getUsername());
+        return User.withUserDetails(userDetails).password(newPassword).build();
     }
 }
@@ -5,18 +5,22 @@ import ma.enset.hopital.entities.AppRole;
 import ma.enset.hopital.entities.AppUser;
 import ma.enset.hopital.repository.AppRoleRepository;
 import ma.enset.hopital.repository.AppUserRepository;
+import ma.enset.hopital.security.UserDetailsCache;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
 
 @Service
+@Transactional
 @AllArgsConstructor
 public class AccountServiceImpl implements AccountService {
 
     private final AppUserRepository appUserRepository;
     private final AppRoleRepository appRoleRepository;
     private final PasswordEncoder passwordEncoder;
+    private final UserDetailsCache userCache;
 
     @Override
     public AppUser addNewUser(String username, String password, String confirmPassword) {
@@ -28,7 +32,9 @@ public class AccountServiceImpl implements AccountService {
                 .password(passwordEncoder.encode(password))
                 .roles(new ArrayList<>())
                 .build();
-        return appUserRepository.save(user);
+        user = appUserRepository.save(user);
+        userCache.removeUserFromCache(username);
+        return user;
     }
 
     @Override
@@ -45,6 +51,7 @@ public class AccountServiceImpl implements AccountService {
         if (user == null || role == null) throw new RuntimeException("User or Role not found");
         user.getRoles().add(role);
         appUserRepository.save(user);
+        userCache.removeUserFromCache(username);
     }
 
     @Override
@@ -0,0 +1,107 @@
+package ma.enset.hopital.service;
+
+import ma.enset.hopital.repository.PatientRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Counts the patients matching a search keyword according to the configured
+ * strategy (hopital.patients.count-strategy):
+ * <ul>
+ *     <li>EXACT: a count query on every call</li>
+ *     <li>CACHED: exact count, reused per keyword until the TTL expires</li>
+ *     <li>ESTIMATED: row count taken from the database statistics; only available
+ *     for an empty keyword, other keywords have no total</li>
+ * </ul>
+ */
+@Component
+public class PatientCounter {
+
+    public enum Strategy { EXACT, CACHED, ESTIMATED }
+
+    public record PatientCount(long value, boolean exact) {
+    }
+
+    private record CachedCount(PatientCount count, long expiresAt) {
+    }
+
+    private final PatientRepository patientRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final Strategy strategy;
+    private final long ttlMillis;
+    private final int maxEntries;
+    private final Map<String, CachedCount> cache = new ConcurrentHashMap<>();
+
+    public PatientCounter(PatientRepository patientRepository, JdbcTemplate jdbcTemplate,
+                          @Value("${hopital.patients.count-strategy:EXACT}") Strategy strategy,
+                          @Value("${hopital.patients.count-cache.ttl:30s}") Duration ttl,
+                          @Value("${hopital.patients.count-cache.max-entries:1000}") int maxEntries) {
+        this.patientRepository = patientRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.strategy = strategy;
+        this.ttlMillis = ttl.toMillis();
+        this.maxEntries = maxEntries;
+    }
+
+    public Strategy getStrategy() {
+        return strategy;
+    }
+
+    /**
+     * @return the number of matching patients, or null when it is not known
+     */
+    public PatientCount count(String keyword) {
+        return switch (strategy) {
+            case EXACT -> new PatientCount(patientRepository.countByNomContains(keyword), true);
+            case CACHED -> cached(keyword, () -> new PatientCount(patientRepository.countByNomContains(keyword), true));
+            case ESTIMATED -> keyword.isEmpty() ? cached(keyword, this::estimate) : null;
+        };
+    }
+
+    public void invalidate() {
+        cache.clear();
+    }
+
+    // runs before the table version moves, see PatientTableVersion
+    @EventListener
+    public void onChanged(PatientTableVersion.Changed changed) {
+        invalidate();
+    }
+
+    private PatientCount cached(String keyword, Supplier<PatientCount> loader) {
+        long now = System.currentTimeMillis();
+        CachedCount entry = cache.get(keyword);
+        if (entry != null && entry.expiresAt() > now) return entry.count();
+        PatientCount count = loader.get();
+        if (cache.size() >= maxEntries) {
+            cache.values().removeIf(e -> e.expiresAt() <= now);
+            if (cache.size() >= maxEntries) cache.clear();
+        }
+        cache.put(keyword, new CachedCount(count, now + ttlMillis));
+        return count;
+    }
+
+    private PatientCount estimate() {
+        try {
+            String product = jdbcTemplate.execute((ConnectionCallback<String>) c -> c.getMetaData().getDatabaseProductName());
+            Long rows = "H2".equals(product)
+                    ? jdbcTemplate.queryForObject("select row_count_estimate from information_schema.tables " +
+                    "where table_schema = schema() and table_name = 'PATIENT'", Long.class)
+                    : jdbcTemplate.queryForObject("select table_rows from information_schema.tables " +
+                    "where table_schema = database() and table_name = 'patient'", Long.class);
+            if (rows != null) return new PatientCount(rows, false);
+        } catch (DataAccessException e) {
+            // no usable statistics on this database, fall through to an exact count
+        }
+        return new PatientCount(patientRepository.count(), true);
+    }
+}
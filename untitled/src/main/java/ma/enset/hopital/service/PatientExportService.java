@@ -0,0 +1,82 @@
+package ma.enset.hopital.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ma.enset.hopital.dto.PatientView;
+import ma.enset.hopital.repository.PatientRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes every patient to an output stream, reading the table through a JDBC cursor as
+ * {@link PatientView} projections, so memory use does not grow with the table.
+ */
+@Service
+public class PatientExportService {
+
+    private final PatientRepository patientRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    public PatientExportService(PatientRepository patientRepository, ObjectMapper objectMapper,
+                                PlatformTransactionManager transactionManager) {
+        this.patientRepository = patientRepository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    public void writeCsv(OutputStream out) throws IOException {
+        SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd");
+        export(out, (p, sink) -> {
+            String line = p.getId() + "," + csv(p.getNom()) + ","
+                    + (p.getDateNaissance() == null ? "" : dateFormat.format(p.getDateNaissance())) + ","
+                    + p.isMalade() + "," + p.getScore() + "\n";
+            sink.write(line.getBytes(StandardCharsets.UTF_8));
+        }, "id,nom,dateNaissance,malade,score\n");
+    }
+
+    public void writeNdjson(OutputStream out) throws IOException {
+        export(out, (p, sink) -> {
+            sink.write(objectMapper.writeValueAsBytes(p));
+            sink.write('\n');
+        }, null);
+    }
+
+    private interface RowWriter {
+        void write(PatientView patient, OutputStream sink) throws IOException;
+    }
+
+    private void export(OutputStream out, RowWriter rowWriter, String header) throws IOException {
+        BufferedOutputStream sink = new BufferedOutputStream(out, 64 * 1024);
+        if (header != null) sink.write(header.getBytes(StandardCharsets.UTF_8));
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<PatientView> patients = patientRepository.streamAllViews()) {
+                    Iterator<PatientView> it = patients.iterator();
+                    while (it.hasNext()) rowWriter.write(it.next(), sink);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        sink.flush();
+    }
+
+    private static String csv(String value) {
+        if (value == null) return "";
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) return value;
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
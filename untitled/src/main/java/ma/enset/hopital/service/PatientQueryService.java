@@ -0,0 +1,96 @@
+package ma.enset.hopital.service;
+
+import lombok.AllArgsConstructor;
+import ma.enset.hopital.dto.PatientCriteria;
+import ma.enset.hopital.dto.PatientView;
+import ma.enset.hopital.repository.PatientRepository;
+import ma.enset.hopital.repository.PatientSpecifications;
+import ma.enset.hopital.search.PatientNameIndex;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read side of the patient pages. Runs in read-only transactions (no flush, read-only JDBC connection)
+ * and returns {@link PatientView} projections, so listing never pays for dirty-checking snapshots.
+ */
+@Service
+@Transactional(readOnly = true)
+@AllArgsConstructor
+public class PatientQueryService {
+
+    private PatientRepository patientRepository;
+    private PatientNameIndex patientNameIndex;
+
+    public List<PatientView> findAll(){
+        return patientRepository.findAllViews();
+    }
+
+    public Page<PatientView> search(String kw, int page, int size){
+        Page<PatientView> indexed = searchIndexed(kw, page, size);
+        return indexed != null ? indexed : patientRepository.findViewsByNomContains(kw, PageRequest.of(page, size));
+    }
+
+    // null when the name index cannot answer the keyword (not loaded yet, or fewer than 3 characters)
+    public Page<PatientView> searchIndexed(String kw, int page, int size){
+        long[] ids = patientNameIndex.search(kw);
+        if (ids == null) return null;
+        // the name index resolves the matching ids, only the rows of the page are read by primary key
+        int from = (int) Math.min((long) page * size, ids.length);
+        return new PageImpl<>(findByIds(ids, from, Math.min(from + size, ids.length)), PageRequest.of(page, size), ids.length);
+    }
+
+    public Page<PatientView> search(PatientCriteria criteria, String kw, int page, int size){
+        return patientRepository.findViews(PatientSpecifications.matching(criteria, kw), PageRequest.of(page, size));
+    }
+
+    public Slice<PatientView> searchSlice(String kw, int page, int size){
+        return patientRepository.findViewSliceByNomContains(kw, PageRequest.of(page, size));
+    }
+
+    // keyset page: up to limit rows with an id greater than afterId
+    public List<PatientView> searchAfter(String kw, long afterId, int limit){
+        long[] ids = patientNameIndex.search(kw);
+        if (ids != null) {
+            int pos = Arrays.binarySearch(ids, afterId);
+            int from = pos >= 0 ? pos + 1 : -pos - 1;
+            return findByIds(ids, from, Math.min(from + limit, ids.length));
+        }
+        return patientRepository.findViewsByNomContainsAfter(kw, afterId, PageRequest.ofSize(limit));
+    }
+
+    // keyset page of the criteria search
+    public List<PatientView> searchAfter(PatientCriteria criteria, String kw, long afterId, int limit){
+        return patientRepository.findViewsAfter(PatientSpecifications.matching(criteria, kw), afterId, limit);
+    }
+
+    // REST API reads: only the requested fields are selected (PatientRepositoryCustom)
+    public List<Map<String, Object>> findFieldsAfter(List<String> fields, String kw, long afterId, int limit){
+        long[] ids = patientNameIndex.search(kw);
+        if (ids != null) {
+            int pos = Arrays.binarySearch(ids, afterId);
+            int from = pos >= 0 ? pos + 1 : -pos - 1;
+            int to = Math.min(from + limit, ids.length);
+            if (from >= to) return List.of();
+            return patientRepository.findFieldsByIdIn(fields, Arrays.stream(ids, from, to).boxed().toList());
+        }
+        return patientRepository.findFieldsByNomContainsAfter(fields, kw, afterId, limit);
+    }
+
+    public List<Map<String, Object>> findFieldsByIds(List<String> fields, Collection<Long> ids){
+        return patientRepository.findFieldsByIdIn(fields, ids);
+    }
+
+    private List<PatientView> findByIds(long[] ids, int from, int to){
+        if (from >= to) return List.of();
+        return patientRepository.findViewsByIdIn(Arrays.stream(ids, from, to).boxed().toList());
+    }
+}
@@ -0,0 +1,103 @@
+package ma.enset.hopital.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import ma.enset.hopital.dto.PatientCriteria;
+import ma.enset.hopital.dto.PatientView;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Front of {@link PatientQueryService} for the web tier: identical searches issued concurrently
+ * (same method, keyword, criteria, page and size; each method has a fixed sort) share a single database call and its result.
+ * It sits outside the read-only transaction so waiting callers hold no connection.
+ * Calls are only shared between callers that read the same {@link PatientTableVersion}: a caller
+ * that already sees a write (its ETag and fragment-cache key use the new version) never joins a
+ * call started before that write.
+ * <p>
+ * hopital.patients.search.coalesced{result=executed|coalesced} gives the coalescing rate.
+ */
+@Service
+public class PatientSearchCoalescer {
+
+    private final PatientQueryService patientQueryService;
+    private final PatientTableVersion patientTableVersion;
+    private final boolean enabled;
+    private final SingleFlight<List<Object>, Object> flights;
+
+    public PatientSearchCoalescer(PatientQueryService patientQueryService, PatientTableVersion patientTableVersion,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${hopital.patients.search.coalescing.enabled:true}") boolean enabled) {
+        this.patientQueryService = patientQueryService;
+        this.patientTableVersion = patientTableVersion;
+        this.enabled = enabled;
+        Counter executed = searches(meterRegistry, "executed");
+        Counter coalesced = searches(meterRegistry, "coalesced");
+        this.flights = new SingleFlight<>(new SingleFlight.Listener() {
+            @Override
+            public void executed() {
+                executed.increment();
+            }
+
+            @Override
+            public void coalesced() {
+                coalesced.increment();
+            }
+        });
+        Gauge.builder("hopital.patients.search.in.flight", flights, SingleFlight::inFlight)
+                .description("Distinct patient searches currently running")
+                .register(meterRegistry);
+    }
+
+    private static Counter searches(MeterRegistry registry, String result) {
+        return Counter.builder("hopital.patients.search.coalesced")
+                .description("Patient searches run against the database or served by an identical search in flight")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    public List<PatientView> findAll(){
+        return coalesce(() -> patientQueryService.findAll(), "findAll");
+    }
+
+    public Page<PatientView> search(String kw, int page, int size){
+        return coalesce(() -> patientQueryService.search(kw, page, size), "search", kw, page, size);
+    }
+
+    public Page<PatientView> searchIndexed(String kw, int page, int size){
+        return coalesce(() -> patientQueryService.searchIndexed(kw, page, size), "searchIndexed", kw, page, size);
+    }
+
+    public Page<PatientView> search(PatientCriteria criteria, String kw, int page, int size){
+        return coalesce(() -> patientQueryService.search(criteria, kw, page, size), "criteria", criteria, kw, page, size);
+    }
+
+    public Slice<PatientView> searchSlice(String kw, int page, int size){
+        return coalesce(() -> patientQueryService.searchSlice(kw, page, size), "searchSlice", kw, page, size);
+    }
+
+    public List<PatientView> searchAfter(String kw, long afterId, int limit){
+        return coalesce(() -> patientQueryService.searchAfter(kw, afterId, limit), "searchAfter", kw, afterId, limit);
+    }
+
+    public List<PatientView> searchAfter(PatientCriteria criteria, String kw, long afterId, int limit){
+        return coalesce(() -> patientQueryService.searchAfter(criteria, kw, afterId, limit), "criteriaAfter", criteria, kw, afterId, limit);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T coalesce(Supplier<T> loader, Object... key){
+        if (!enabled) return loader.get();
+        List<Object> flight = new ArrayList<>(key.length + 1);
+        flight.add(patientTableVersion.current());
+        Collections.addAll(flight, key);
+        return (T) flights.execute(flight, loader::get);
+    }
+}
@@ -0,0 +1,150 @@
+package ma.enset.hopital.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import ma.enset.hopital.entities.Patient;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Change version of the patient table, bumped once per committed transaction that inserted,
+ * updated or deleted a Patient (see {@link Listener}); a bulk import commits, and so bumps,
+ * once per chunk. Views derived from the table are valid as long as the version has not moved:
+ * it is the source of the /index, /patients and /editPatient ETags and part of the
+ * PatientFragmentCache keys.
+ * <p>
+ * The in-memory state derived from the table (PatientNameIndex, PatientCounter) is updated by
+ * the synchronous {@link Changed} listeners before the bump, so a request that reads the new
+ * version also sees that state up to date.
+ */
+@Component
+public class PatientTableVersion {
+
+    /**
+     * Patients written by one committed transaction: id to nom, null for a deleted patient.
+     */
+    public record Changed(Map<Long, String> patients) {
+    }
+
+    // distinguishes the counters of successive runs of the application
+    private final long epoch = System.currentTimeMillis();
+    private final AtomicLong version = new AtomicLong();
+    private volatile long lastModified = epoch;
+    private final ApplicationEventPublisher events;
+    private final EntityManagerFactory entityManagerFactory;
+
+    public PatientTableVersion(ApplicationEventPublisher events, EntityManagerFactory entityManagerFactory) {
+        this.events = events;
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    // registered on the session factory so that the Patient entity does not depend on this service
+    @PostConstruct
+    void registerListener() {
+        Listener listener = new Listener(this);
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, listener);
+        registry.appendListeners(EventType.POST_UPDATE, listener);
+        registry.appendListeners(EventType.POST_DELETE, listener);
+    }
+
+    public long current() {
+        return version.get();
+    }
+
+    public long lastModified() {
+        return lastModified;
+    }
+
+    // weak validator of a view rendered from the given version; variant is whatever else the view depends on
+    public String etag(long version, String variant) {
+        return "W/\"" + Long.toString(epoch, 36) + "-" + version + "-" + Integer.toHexString(variant.hashCode()) + "\"";
+    }
+
+    @SuppressWarnings("unchecked")
+    void changed(long id, String nom) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publish(Collections.singletonMap(id, nom));
+            return;
+        }
+        // one synchronization per transaction, however many rows it writes
+        Map<Long, String> patients = (Map<Long, String>) TransactionSynchronizationManager.getResource(this);
+        if (patients == null) {
+            Map<Long, String> written = new LinkedHashMap<>();
+            TransactionSynchronizationManager.bindResource(this, written);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(PatientTableVersion.this);
+                    if (status == STATUS_COMMITTED) publish(written);
+                }
+            });
+            patients = written;
+        }
+        patients.put(id, nom);
+    }
+
+    private void publish(Map<Long, String> patients) {
+        try {
+            events.publishEvent(new Changed(patients));
+        } finally {
+            bump();
+        }
+    }
+
+    private void bump() {
+        lastModified = System.currentTimeMillis();
+        version.incrementAndGet();
+    }
+
+    /**
+     * Hibernate listener of the Patient writes, called once the statement has been executed.
+     */
+    static class Listener implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+        private final PatientTableVersion tableVersion;
+
+        Listener(PatientTableVersion tableVersion) {
+            this.tableVersion = tableVersion;
+        }
+
+        @Override
+        public void onPostInsert(PostInsertEvent event) {
+            if (event.getEntity() instanceof Patient patient) tableVersion.changed(patient.getId(), patient.getNom());
+        }
+
+        @Override
+        public void onPostUpdate(PostUpdateEvent event) {
+            if (event.getEntity() instanceof Patient patient) tableVersion.changed(patient.getId(), patient.getNom());
+        }
+
+        @Override
+        public void onPostDelete(PostDeleteEvent event) {
+            if (event.getEntity() instanceof Patient patient) tableVersion.changed(patient.getId(), null);
+        }
+
+        // the transaction synchronization of changed() already waits for the commit
+        @Override
+        public boolean requiresPostCommitHandling(EntityPersister persister) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package ma.enset.hopital.service;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Runs at most one loader per key at a time: callers arriving while a call for the same key
+ * is in flight wait for it and receive its result (or its exception) instead of running their own.
+ * Nothing is kept once the call completes.
+ */
+final class SingleFlight<K, V> {
+
+    interface Listener {
+        void executed();
+
+        void coalesced();
+    }
+
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Listener listener;
+
+    SingleFlight(Listener listener) {
+        this.listener = listener;
+    }
+
+    V execute(K key, Supplier<V> loader) {
+        CompletableFuture<V> call = new CompletableFuture<>();
+        CompletableFuture<V> running = inFlight.putIfAbsent(key, call);
+        if (running != null) {
+            listener.coalesced();
+            return await(running);
+        }
+        listener.executed();
+        try {
+            V value = loader.get();
+            call.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, call);
+        }
+    }
+
+    int inFlight() {
+        return inFlight.size();
+    }
+
+    private static <V> V await(CompletableFuture<V> call) {
+        try {
+            return call.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            if (e.getCause() instanceof Error cause) throw cause;
+            throw e;
+        }
+    }
+}
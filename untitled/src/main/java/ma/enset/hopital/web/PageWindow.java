@@ -0,0 +1,63 @@
+package ma.enset.hopital.web;
+
+import lombok.Getter;
+
+/**
+ * Pagination bar of /index: first, previous, a window of page numbers around the current
+ * page, next and last. Its size does not depend on the number of pages. When the total is
+ * unknown (cached/estimated count mode) only previous and next are available.
+ */
+@Getter
+public class PageWindow {
+
+    public static final int WIDTH = 7;
+
+    private final int current;
+    // -1 when unknown
+    private final int totalPages;
+    private final boolean hasPrevious;
+    private final boolean hasNext;
+    private final int windowStart;
+    private final int windowEnd;
+
+    private PageWindow(int current, int totalPages, boolean hasPrevious, boolean hasNext, int windowStart, int windowEnd) {
+        this.current = current;
+        this.totalPages = totalPages;
+        this.hasPrevious = hasPrevious;
+        this.hasNext = hasNext;
+        this.windowStart = windowStart;
+        this.windowEnd = windowEnd;
+    }
+
+    public static PageWindow of(int current, int totalPages) {
+        if (totalPages <= 0) return new PageWindow(current, 0, false, false, 0, -1);
+        int last = totalPages - 1;
+        int start = Math.max(0, Math.min(current - WIDTH / 2, last - WIDTH + 1));
+        int end = Math.min(last, start + WIDTH - 1);
+        return new PageWindow(current, totalPages, current > 0, current < last, start, end);
+    }
+
+    public static PageWindow unknownTotal(int current, boolean hasPrevious, boolean hasNext) {
+        return new PageWindow(current, -1, hasPrevious, hasNext, 0, -1);
+    }
+
+    public boolean isTotalKnown() {
+        return totalPages >= 0;
+    }
+
+    public int getLast() {
+        return totalPages - 1;
+    }
+
+    public int getPrevious() {
+        return current - 1;
+    }
+
+    public int getNext() {
+        return current + 1;
+    }
+
+    public boolean isEmpty() {
+        return totalPages == 0;
+    }
+}
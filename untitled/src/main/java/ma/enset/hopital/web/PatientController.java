@@ -1,48 +1,237 @@
 package ma.enset.hopital.web;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
+import ma.enset.hopital.dto.PatientCriteria;
+import ma.enset.hopital.dto.PatientView;
 import ma.enset.hopital.entities.Patient;
 import ma.enset.hopital.repository.PatientRepository;
+import ma.enset.hopital.service.PatientCounter;
+import ma.enset.hopital.service.PatientSearchCoalescer;
+import ma.enset.hopital.service.PatientTableVersion;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
+import org.springframework.web.accept.ContentNegotiationManager;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.util.UriComponentsBuilder;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.WebContext;
+import org.thymeleaf.web.IWebExchange;
+import org.thymeleaf.web.servlet.JakartaServletWebApplication;
 
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 @Controller
 @AllArgsConstructor
 public class PatientController {
 
+    // bounds the rows rendered per page, and so the bytes of each PatientFragmentCache entry
+    private static final int MAX_SIZE = 100;
+    // representations of /patients, JSON first as for a wildcard Accept (see BinaryFormatsConfig)
+    private static final List<MediaType> PATIENTS_TYPES = List.of(MediaType.APPLICATION_JSON,
+            MediaType.APPLICATION_CBOR, new MediaType("application", "x-jackson-smile"));
+
     private PatientRepository patientRepository;
+    private PatientSearchCoalescer patientSearchCoalescer;
+    private PatientCounter patientCounter;
+    private PatientFragmentCache patientFragmentCache;
+    private ITemplateEngine templateEngine;
+    private PatientTableVersion patientTableVersion;
+    private ContentNegotiationManager contentNegotiationManager;
 
     @GetMapping("/")
     public String home(){
         return "redirect:index";
     }
     @GetMapping("/patients")
-    public List<Patient> listPatients(){
-        return patientRepository.findAll();
+    @ResponseBody
+    public List<PatientView> listPatients(ServletWebRequest webRequest) throws HttpMediaTypeNotAcceptableException {
+        // JSON, CBOR and Smile bodies of the same version must not share an ETag or a cache entry
+        webRequest.getResponse().setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        if (notModified(webRequest, patientTableVersion.current(), negotiated(webRequest).toString())) return null;
+        return patientSearchCoalescer.findAll();
     }
 
     @GetMapping("/index")
     public String index(Model model,
                         @RequestParam(name = "page",defaultValue = "0") int p,
                         @RequestParam(name = "size",defaultValue = "4") int s,
-                        @RequestParam(name = "keyword",defaultValue = "") String kw){
+                        @RequestParam(name = "keyword",defaultValue = "") String kw,
+                        @RequestParam(name = "cursor",required = false) String cursor,
+                        @ModelAttribute("criteria") PatientCriteria criteria,
+                        Authentication authentication,
+                        ServletWebRequest webRequest){
+        s = Math.max(1, Math.min(s, MAX_SIZE));
+        Long after = decodeCursor(cursor);
+        // read before querying: whatever is rendered below is at least as recent as this version
+        long version = patientTableVersion.current();
+        String roles = roles(authentication);
+        // the navbar shows the user name and the admin menu, the rest of the page depends on the URL only
+        if (notModified(webRequest, version, (authentication == null ? "" : authentication.getName()) + "|" + roles)) return null;
+        // the table and the pagination are rendered once per query and role, then served from PatientFragmentCache
+        PatientFragmentCache.Key key = new PatientFragmentCache.Key(version, roles, kw, p, s, cursor, criteria);
+        byte[] table = patientFragmentCache.get(key);
+        if (table == null) {
+            listPatients(model, p, s, kw, after, criteria);
+            table = renderTable(model, webRequest.getRequest(), webRequest.getResponse());
+            patientFragmentCache.put(key, table);
+        }
+        model.addAttribute("tableHtml",new String(table, StandardCharsets.UTF_8));
+        model.addAttribute("keyword",kw);
+        return "patients";
+    }
+
+    private void listPatients(Model model, int p, int s, String kw, Long after, PatientCriteria criteria){
+        Map<String, String> pageParams = pageParams(kw, s, criteria);
+        model.addAttribute("pageParams",pageParams);
+        model.addAttribute("pageUrl",queryUrl(pageParams, "page"));
+        model.addAttribute("cursorUrl",queryUrl(pageParams, "cursor"));
+        if (after != null) {
+            indexKeyset(model, criteria, after, s, kw);
+            return;
+        }
+        if (!criteria.isEmpty()) {
+            indexCriteria(model, criteria, p, s, kw);
+            return;
+        }
         //List<Patient> patientList = patientRepository.findAll();
         //Page<Patient> pagePatients = patientRepository.findAll(PageRequest.of(p,s));
-        Page<Patient> pagePatients = patientRepository.findByNomContains(kw, PageRequest.of(p,s));
+        Page<PatientView> pagePatients = patientCounter.getStrategy() == PatientCounter.Strategy.EXACT
+                ? patientSearchCoalescer.search(kw, p, s)
+                : patientSearchCoalescer.searchIndexed(kw, p, s);
+        if (pagePatients == null) {
+            indexSlice(model, p, s, kw);
+            return;
+        }
         model.addAttribute("patientList",pagePatients);
-        model.addAttribute("pages",new int[pagePatients.getTotalPages()]);
+        model.addAttribute("pagination",PageWindow.of(p, pagePatients.getTotalPages()));
+        model.addAttribute("size",s);
         model.addAttribute("currentPage",p);
         model.addAttribute("keyword",kw);
-        return "patients";
+    }
+
+    // query parameters kept by the pagination links and the jump-to-page form
+    private static Map<String, String> pageParams(String kw, int s, PatientCriteria criteria){
+        Map<String, String> params = new LinkedHashMap<>();
+        params.put("size", String.valueOf(s));
+        if (!kw.isEmpty()) params.put("keyword", kw);
+        if (criteria.getNom() != null && !criteria.getNom().isBlank()) params.put("nom", criteria.getNom());
+        if (criteria.getBornFrom() != null) params.put("bornFrom", criteria.getBornFrom().toString());
+        if (criteria.getBornTo() != null) params.put("bornTo", criteria.getBornTo().toString());
+        if (criteria.getMalade() != null) params.put("malade", criteria.getMalade().toString());
+        if (criteria.getScoreMin() != null) params.put("scoreMin", criteria.getScoreMin().toString());
+        if (criteria.getScoreMax() != null) params.put("scoreMax", criteria.getScoreMax().toString());
+        return params;
+    }
+
+    // "/index?size=4&keyword=...&page=", the template appends the page number (or the cursor). The values
+    // are expanded as URI variables so that reserved characters such as & and + in a keyword are encoded too
+    private static String queryUrl(Map<String, String> params, String last){
+        UriComponentsBuilder url = UriComponentsBuilder.fromPath("/index");
+        params.keySet().forEach(name -> url.queryParam(name, "{" + name + "}"));
+        return url.encode().buildAndExpand(params).toUriString() + "&" + last + "=";
+    }
+
+    // null without a cursor, 0 for the first keyset page; a malformed cursor is a bad request, not a 500
+    private static Long decodeCursor(String cursor){
+        if (cursor == null) return null;
+        try {
+            return PatientCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+    }
+
+    private byte[] renderTable(Model model, HttpServletRequest request, HttpServletResponse response){
+        IWebExchange exchange = JakartaServletWebApplication.buildApplication(request.getServletContext())
+                .buildExchange(request, response);
+        WebContext context = new WebContext(exchange, request.getLocale(), model.asMap());
+        return templateEngine.process("patientsTable", context).getBytes(StandardCharsets.UTF_8);
+    }
+
+    // 304 when the patient table has not changed since the client's copy. Spring Security would send
+    // no-store; private, no-cache lets the browser keep the page but revalidate it on every use
+    private boolean notModified(ServletWebRequest webRequest, long version, String variant){
+        webRequest.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().cachePrivate().getHeaderValue());
+        return webRequest.checkNotModified(patientTableVersion.etag(version, variant), patientTableVersion.lastModified());
+    }
+
+    // the type the message converters will write: the first accepted one, most specific first, that is produced
+    private MediaType negotiated(ServletWebRequest webRequest) throws HttpMediaTypeNotAcceptableException {
+        return contentNegotiationManager.resolveMediaTypes(webRequest).stream()
+                .flatMap(accepted -> PATIENTS_TYPES.stream().filter(accepted::isCompatibleWith))
+                .findFirst()
+                .orElse(MediaType.APPLICATION_JSON);
+    }
+
+    private static String roles(Authentication authentication){
+        if (authentication == null) return "";
+        return authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .sorted()
+                .collect(Collectors.joining(","));
+    }
+
+    // multi-criteria search, every filter is answered by an index (see PatientSpecifications)
+    private void indexCriteria(Model model, PatientCriteria criteria, int p, int s, String kw){
+        Page<PatientView> pagePatients = patientSearchCoalescer.search(criteria, kw, p, s);
+        model.addAttribute("patientList",pagePatients);
+        model.addAttribute("pagination",PageWindow.of(p, pagePatients.getTotalPages()));
+        model.addAttribute("size",s);
+        model.addAttribute("currentPage",p);
+        model.addAttribute("keyword",kw);
+    }
+
+    // cached/estimated count mode: the data query is a Slice and the total comes from PatientCounter
+    private void indexSlice(Model model, int p, int s, String kw){
+        Slice<PatientView> slicePatients = patientSearchCoalescer.searchSlice(kw, p, s);
+        PatientCounter.PatientCount total = patientCounter.count(kw);
+        boolean exact = total != null && total.exact();
+        model.addAttribute("patientList",slicePatients);
+        model.addAttribute("pagination",exact
+                ? PageWindow.of(p, (int) Math.ceil((double) total.value() / s))
+                : PageWindow.unknownTotal(p, slicePatients.hasPrevious(), slicePatients.hasNext()));
+        model.addAttribute("approxTotal",total != null && !exact ? total.value() : null);
+        model.addAttribute("size",s);
+        model.addAttribute("currentPage",p);
+        model.addAttribute("keyword",kw);
+    }
+
+    // keyset mode: the cursor replaces the page number, an empty cursor means the first page
+    private void indexKeyset(Model model, PatientCriteria criteria, long after, int s, String kw){
+        List<PatientView> rows = criteria.isEmpty()
+                ? patientSearchCoalescer.searchAfter(kw, after, s + 1)
+                : patientSearchCoalescer.searchAfter(criteria, kw, after, s + 1);
+        boolean hasNext = rows.size() > s;
+        List<PatientView> patients = hasNext ? rows.subList(0, s) : rows;
+        model.addAttribute("patientList",patients);
+        model.addAttribute("keyset",true);
+        model.addAttribute("nextCursor",hasNext ? PatientCursor.encode(patients.get(patients.size() - 1).getId()) : null);
+        model.addAttribute("size",s);
+        model.addAttribute("currentPage",0);
+        model.addAttribute("keyword",kw);
     }
 
     @GetMapping("/delete")
@@ -67,7 +256,9 @@ public class PatientController {
         return "redirect:index?page="+page+"&keyword="+keyword;
     }
     @GetMapping("/editPatient")
-    public String editPatient(Model model, Long id, String keyword, int page){
+    public String editPatient(Model model, Long id, String keyword, int page,
+                              Authentication authentication, ServletWebRequest webRequest){
+        if (notModified(webRequest, patientTableVersion.current(), authentication == null ? "" : authentication.getName())) return null;
         Patient patient = patientRepository.findById(id).orElse(null);
         if (patient == null) throw new RuntimeException("Patient not found");
         model.addAttribute("patient", patient);
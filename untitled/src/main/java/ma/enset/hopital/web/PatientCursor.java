@@ -0,0 +1,32 @@
+package ma.enset.hopital.web;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque cursor token used by keyset pagination: it carries the id of the
+ * last patient of the previous page, URL-safe encoded.
+ */
+public final class PatientCursor {
+
+    private PatientCursor() {
+    }
+
+    public static String encode(long lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(Long.toString(lastId).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * @return the last id seen, or 0 for an empty token (first page)
+     */
+    public static long decode(String token) {
+        if (token == null || token.isBlank()) return 0L;
+        try {
+            byte[] raw = Base64.getUrlDecoder().decode(token);
+            return Long.parseLong(new String(raw, StandardCharsets.US_ASCII));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token, e);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package ma.enset.hopital.web;
+
+import lombok.AllArgsConstructor;
+import ma.enset.hopital.service.PatientExportService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.charset.StandardCharsets;
+
+@Controller
+@AllArgsConstructor
+public class PatientExportController {
+
+    private PatientExportService patientExportService;
+
+    @GetMapping("/patients/export.csv")
+    public ResponseEntity<StreamingResponseBody> exportCsv(){
+        return ResponseEntity.ok()
+                .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"patients.csv\"")
+                .body(patientExportService::writeCsv);
+    }
+
+    @GetMapping("/patients/export.ndjson")
+    public ResponseEntity<StreamingResponseBody> exportNdjson(){
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"patients.ndjson\"")
+                .body(patientExportService::writeNdjson);
+    }
+}
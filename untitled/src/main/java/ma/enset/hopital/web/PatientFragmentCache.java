@@ -0,0 +1,81 @@
+package ma.enset.hopital.web;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import ma.enset.hopital.dto.PatientCriteria;
+import ma.enset.hopital.service.PatientTableVersion;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded (LRU) cache of the rendered patient table and pagination of /index, stored as
+ * UTF-8 bytes and keyed by the query, the roles of the user and the {@link PatientTableVersion}
+ * read before querying. A hit skips both the SQL and the evaluation of patientsTable.html.
+ * Entries of older versions can no longer be hit and are dropped as soon as a newer one is stored.
+ */
+@Component
+public class PatientFragmentCache implements MeterBinder {
+
+    public record Key(long version, String roles, String keyword, int page, int size, String cursor, PatientCriteria criteria) {
+    }
+
+    private final boolean enabled;
+    private final Map<Key, byte[]> entries;
+    private long version;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public PatientFragmentCache(@Value("${hopital.patients.fragment-cache.enabled:true}") boolean enabled,
+                                @Value("${hopital.patients.fragment-cache.max-entries:500}") int maxEntries) {
+        this.enabled = enabled;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, byte[]> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    public byte[] get(Key key) {
+        if (!enabled) return null;
+        byte[] fragment;
+        synchronized (entries) {
+            fragment = entries.get(key);
+        }
+        (fragment == null ? misses : hits).incrementAndGet();
+        return fragment;
+    }
+
+    public void put(Key key, byte[] fragment) {
+        if (!enabled) return;
+        synchronized (entries) {
+            if (key.version() < version) return;
+            if (key.version() > version) {
+                entries.clear();
+                version = key.version();
+            }
+            entries.put(key, fragment);
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("hopital.patients.fragment.cache.requests", hits, AtomicLong::get)
+                .tag("result", "hit").register(registry);
+        FunctionCounter.builder("hopital.patients.fragment.cache.requests", misses, AtomicLong::get)
+                .tag("result", "miss").register(registry);
+        Gauge.builder("hopital.patients.fragment.cache.size", this, PatientFragmentCache::size).register(registry);
+    }
+}
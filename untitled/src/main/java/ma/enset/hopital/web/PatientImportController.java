@@ -0,0 +1,43 @@
+package ma.enset.hopital.web;
+
+import lombok.AllArgsConstructor;
+import ma.enset.hopital.imports.ImportReport;
+import ma.enset.hopital.imports.PatientImportService;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+
+@Controller
+@AllArgsConstructor
+public class PatientImportController {
+
+    private PatientImportService patientImportService;
+
+    @GetMapping("/importPatients")
+    public String importForm(){
+        return "importPatients";
+    }
+
+    @PostMapping("/importPatients")
+    public String importPatients(Model model, @RequestParam("file") MultipartFile file) throws IOException {
+        if (file.isEmpty()) {
+            model.addAttribute("error", "Please choose a CSV file");
+            return "importPatients";
+        }
+        try (Reader reader = new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8)) {
+            ImportReport report = patientImportService.importCsv(reader);
+            model.addAttribute("report", report);
+        } catch (IllegalArgumentException e) {
+            model.addAttribute("error", e.getMessage());
+        }
+        return "importPatients";
+    }
+}
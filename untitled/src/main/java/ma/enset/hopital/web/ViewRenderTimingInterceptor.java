@@ -0,0 +1,52 @@
+package ma.enset.hopital.web;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.AllArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times the Thymeleaf rendering of each view: the view renders between
+ * postHandle and afterCompletion, after the controller (and its queries) returned.
+ */
+@Component
+@AllArgsConstructor
+public class ViewRenderTimingInterceptor implements HandlerInterceptor {
+
+    private static final String START = ViewRenderTimingInterceptor.class.getName() + ".start";
+    private static final String VIEW = ViewRenderTimingInterceptor.class.getName() + ".view";
+
+    private MeterRegistry meterRegistry;
+    // one timer per view name, built once instead of looked up in the registry on every request
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    @Override
+    public void postHandle(HttpServletRequest request, HttpServletResponse response, Object handler, ModelAndView modelAndView) {
+        if (modelAndView == null || modelAndView.getViewName() == null || modelAndView.getViewName().startsWith("redirect:")) return;
+        request.setAttribute(VIEW, modelAndView.getViewName());
+        request.setAttribute(START, System.nanoTime());
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (!(request.getAttribute(START) instanceof Long start)) return;
+        timers.computeIfAbsent((String) request.getAttribute(VIEW), this::timer)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    private Timer timer(String view) {
+        return Timer.builder("hopital.view.render")
+                .description("Template rendering time")
+                .tag("view", view)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,128 @@
+package ma.enset.hopital.web.api;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Valid;
+import jakarta.validation.Validator;
+import lombok.AllArgsConstructor;
+import ma.enset.hopital.dto.PatientView;
+import ma.enset.hopital.entities.Patient;
+import ma.enset.hopital.repository.PatientRepository;
+import ma.enset.hopital.repository.PatientRepositoryCustom;
+import ma.enset.hopital.service.PatientQueryService;
+import ma.enset.hopital.web.PatientCursor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * JSON API over the patients. Reads take an optional fields=id,nom,... selection that is
+ * turned into a query selecting only those columns; id is always returned. Lists are paged
+ * with an opaque cursor (keyset pagination), not page numbers.
+ */
+@RestController
+@RequestMapping("/api/patients")
+@AllArgsConstructor
+public class PatientApiController {
+
+    private static final int MAX_SIZE = 1000;
+
+    private PatientQueryService patientQueryService;
+    private PatientRepository patientRepository;
+    private Validator validator;
+
+    @GetMapping
+    public PatientSlice list(@RequestParam(name = "keyword", defaultValue = "") String keyword,
+                             @RequestParam(name = "cursor", required = false) String cursor,
+                             @RequestParam(name = "size", defaultValue = "20") int size,
+                             @RequestParam(name = "fields", required = false) List<String> fields) {
+        int limit = Math.max(1, Math.min(size, MAX_SIZE));
+        List<Map<String, Object>> rows = patientQueryService.findFieldsAfter(fields(fields), keyword, PatientCursor.decode(cursor), limit + 1);
+        boolean hasNext = rows.size() > limit;
+        List<Map<String, Object>> content = hasNext ? rows.subList(0, limit) : rows;
+        String nextCursor = hasNext ? PatientCursor.encode((Long) content.get(content.size() - 1).get("id")) : null;
+        return new PatientSlice(content, nextCursor);
+    }
+
+    @GetMapping("/{id}")
+    public Map<String, Object> get(@PathVariable Long id,
+                                   @RequestParam(name = "fields", required = false) List<String> fields) {
+        List<Map<String, Object>> rows = patientQueryService.findFieldsByIds(fields(fields), List.of(id));
+        if (rows.isEmpty()) throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Patient not found");
+        return rows.get(0);
+    }
+
+    // ids that do not exist are left out of the result
+    @GetMapping("/batch")
+    public List<Map<String, Object>> batch(@RequestParam("ids") Set<Long> ids,
+                                           @RequestParam(name = "fields", required = false) List<String> fields) {
+        if (ids.size() > MAX_SIZE) throw new IllegalArgumentException("At most " + MAX_SIZE + " ids per request");
+        return patientQueryService.findFieldsByIds(fields(fields), ids);
+    }
+
+    @PostMapping
+    public ResponseEntity<PatientView> create(@Valid @RequestBody Patient patient) {
+        patient.setId(null);
+        Patient saved = patientRepository.save(patient);
+        return ResponseEntity.created(ServletUriComponentsBuilder.fromCurrentRequest()
+                        .path("/{id}").buildAndExpand(saved.getId()).toUri())
+                .body(PatientView.of(saved));
+    }
+
+    @PatchMapping("/{id}")
+    public PatientView patch(@PathVariable Long id, @RequestBody PatientPatch patch) {
+        Patient patient = patientRepository.findById(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Patient not found"));
+        if (patch.nom() != null) patient.setNom(patch.nom());
+        if (patch.dateNaissance() != null) patient.setDateNaissance(patch.dateNaissance());
+        if (patch.malade() != null) patient.setMalade(patch.malade());
+        if (patch.score() != null) patient.setScore(patch.score());
+        Set<ConstraintViolation<Patient>> violations = validator.validate(patient);
+        if (!violations.isEmpty()) throw new IllegalArgumentException(violations.stream()
+                .map(v -> v.getPropertyPath() + " " + v.getMessage())
+                .collect(Collectors.joining(", ")));
+        return PatientView.of(patientRepository.save(patient));
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> delete(@PathVariable Long id) {
+        if (!patientRepository.existsById(id)) throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Patient not found");
+        patientRepository.deleteById(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ProblemDetail badRequest(IllegalArgumentException e) {
+        return ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, e.getMessage());
+    }
+
+    // the requested fields, id first; all fields when none are given
+    private static List<String> fields(List<String> requested) {
+        if (requested == null || requested.isEmpty()) return PatientRepositoryCustom.FIELDS;
+        List<String> fields = new ArrayList<>();
+        fields.add("id");
+        for (String field : requested) {
+            String name = field.trim();
+            if (!PatientRepositoryCustom.FIELDS.contains(name)) throw new IllegalArgumentException("Unknown field: " + name);
+            if (!fields.contains(name)) fields.add(name);
+        }
+        return fields;
+    }
+}
@@ -0,0 +1,9 @@
+package ma.enset.hopital.web.api;
+
+import java.util.Date;
+
+/**
+ * Body of PATCH /api/patients/{id}: null fields are left unchanged.
+ */
+public record PatientPatch(String nom, Date dateNaissance, Boolean malade, Integer score) {
+}
@@ -0,0 +1,10 @@
+package ma.enset.hopital.web.api;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One page of GET /api/patients; nextCursor is null on the last page.
+ */
+public record PatientSlice(List<Map<String, Object>> content, String nextCursor) {
+}
@@ -0,0 +1,32 @@
+-- Tables as previously generated by ddl-auto=update (MariaDB dialect). Existing databases are
+-- baselined at this version; the id sequences come with V2, in the folder of each vendor.
+
+create table patient (
+    id bigint not null,
+    nom varchar(20) not null,
+    date_naissance datetime(6),
+    malade bit not null,
+    score integer not null,
+    primary key (id)
+);
+
+create table app_role (
+    id bigint not null,
+    role_name varchar(255),
+    primary key (id)
+);
+
+create table app_user (
+    id bigint not null,
+    username varchar(255),
+    password varchar(255),
+    primary key (id)
+);
+
+create table app_user_roles (
+    app_user_id bigint not null,
+    roles_id bigint not null,
+    primary key (app_user_id, roles_id),
+    constraint fk_app_user_roles_user foreign key (app_user_id) references app_user (id),
+    constraint fk_app_user_roles_role foreign key (roles_id) references app_role (id)
+);
@@ -0,0 +1,6 @@
+-- Login and role lookups
+create unique index ux_app_user_username on app_user (username);
+create unique index ux_app_role_role_name on app_role (role_name);
+
+-- Name search and keyset pagination (nom prefix, then id order)
+create index ix_patient_nom_id on patient (nom, id);
@@ -0,0 +1,6 @@
+-- Indexes behind the criteria search (PatientSpecifications): equality column first, then the range.
+-- nom prefix searches use ix_patient_nom_id from V3.
+create index ix_patient_malade_date_score on patient (malade, date_naissance, score);
+create index ix_patient_malade_score on patient (malade, score);
+create index ix_patient_date_naissance on patient (date_naissance);
+create index ix_patient_score on patient (score);
@@ -0,0 +1,5 @@
+-- Sequences of the pooled-lo ids, stepping by the allocationSize (50) of the entities.
+-- H2 only backs the in-memory databases of the tests and benchmarks, which start empty.
+create sequence patient_seq start with 1 increment by 50;
+create sequence app_user_seq start with 1 increment by 50;
+create sequence app_role_seq start with 1 increment by 50;
@@ -0,0 +1,21 @@
+-- Sequences of the pooled-lo ids, stepping by the allocationSize (50) of the entities.
+-- They start past the highest id already stored, so that databases baselined at V1
+-- (tables created by the former IDENTITY mapping) keep inserting without collisions.
+
+set @start = (select coalesce(max(id), 0) + 1 from patient);
+set @ddl = concat('create sequence patient_seq start with ', @start, ' increment by 50');
+prepare create_sequence from @ddl;
+execute create_sequence;
+deallocate prepare create_sequence;
+
+set @start = (select coalesce(max(id), 0) + 1 from app_user);
+set @ddl = concat('create sequence app_user_seq start with ', @start, ' increment by 50');
+prepare create_sequence from @ddl;
+execute create_sequence;
+deallocate prepare create_sequence;
+
+set @start = (select coalesce(max(id), 0) + 1 from app_role);
+set @ddl = concat('create sequence app_role_seq start with ', @start, ' increment by 50');
+prepare create_sequence from @ddl;
+execute create_sequence;
+deallocate prepare create_sequence;
@@ -0,0 +1,13 @@
+-- MySQL has no sequences: Hibernate (MySQLDialect) emulates each one with a single-row table
+-- whose next_val it reads and moves by the allocationSize (50) of the entities.
+-- The rows start past the highest id already stored, so that databases baselined at V1
+-- (tables created by the former IDENTITY mapping) keep inserting without collisions.
+
+create table patient_seq (next_val bigint) engine=InnoDB;
+insert into patient_seq select coalesce(max(id), 0) + 1 from patient;
+
+create table app_user_seq (next_val bigint) engine=InnoDB;
+insert into app_user_seq select coalesce(max(id), 0) + 1 from app_user;
+
+create table app_role_seq (next_val bigint) engine=InnoDB;
+insert into app_role_seq select coalesce(max(id), 0) + 1 from app_role;
@@ -0,0 +1,87 @@
+package ma.enset.hopital.security;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import ma.enset.hopital.entities.AppUser;
+import ma.enset.hopital.repository.AppUserRepository;
+import ma.enset.hopital.security.service.AccountService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Statements sent to the database by the account reads, counted with the Hibernate statistics
+ * (hibernate.generate_statistics is on in application.properties). The second-level and
+ * query caches are emptied first so that every read goes to the database.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class AppUserQueryCountTest {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private AppUserRepository userRepository;
+    @Autowired
+    private AccountService accountService;
+    @Autowired
+    private UserDetailsServiceImpl userDetailsService;
+    @Autowired
+    private UserDetailsCache userCache;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void loginLoadsUserAndRolesInOneQuery() {
+        userCache.removeUserFromCache("admin");
+        startCounting();
+
+        UserDetails admin = userDetailsService.loadUserByUsername("admin");
+
+        assertThat(admin.getAuthorities()).extracting(GrantedAuthority::getAuthority).containsExactly("ADMIN");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    @Transactional
+    void listingBatchesTheRoleCollections() {
+        for (int i = 0; i < 120; i++) {
+            accountService.addNewUser("listed" + i, "secret", "secret");
+            accountService.addRoleToUser("listed" + i, "USER");
+        }
+        entityManager.flush();
+        entityManager.clear();
+        startCounting();
+
+        List<AppUser> users = userRepository.findAll();
+        users.forEach(user -> user.getRoles().size());
+
+        // one query for the users, then one per 50 role collections (@BatchSize) instead of one per user
+        long batches = (users.size() + 49) / 50;
+        assertThat(users).hasSizeGreaterThan(120);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1 + batches);
+    }
+
+    private void startCounting() {
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+        statistics.clear();
+    }
+}